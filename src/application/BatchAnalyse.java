@@ -0,0 +1,36 @@
+package application;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import chess.engine.BatchEvaluator;
+
+// searches every position of a FEN file, one per line, printing results as they finish:
+//   BatchAnalyse <fen file> [depth] [nodes per position] [threads]
+public class BatchAnalyse {
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+
+			System.out.println("Usage: BatchAnalyse <fen file> [depth] [nodes per position] [threads]");
+			return;
+		}
+
+		List<String> fens = Files.readAllLines(Paths.get(args[0]), StandardCharsets.US_ASCII).stream()
+				.filter(line -> !line.trim().isEmpty()).collect(Collectors.toList());
+		int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 6;
+		long nodes = (args.length > 2) ? Long.parseLong(args[2]) : 0;
+		int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		BatchEvaluator evaluator = new BatchEvaluator(threads, 4);
+		long start = System.currentTimeMillis();
+		int evaluated = evaluator.evaluate(fens, depth, nodes, System.out::println).await();
+		System.out.println(evaluated + " positions in " + (System.currentTimeMillis() - start) + " ms");
+		evaluator.shutdown();
+	}
+}
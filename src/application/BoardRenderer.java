@@ -0,0 +1,149 @@
+package application;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import chess.Color;
+import chess.PieceType;
+import chess.PositionSnapshot;
+
+// draws a board from position snapshots with cursor addressing. each frame goes out in a
+// single write and, once the board is on screen, only the cells that changed are sent again.
+// the compact form is one plain character per cell, for many boards tiled on one screen
+public class BoardRenderer {
+
+	private static final int HIGHLIGHT = 32;
+
+	private final PrintStream out;
+	private final int top;
+	private final int left;
+	private final boolean compact;
+
+	// what each cell shows now, -1 when unknown
+	private final int[] cells = new int[64];
+	private boolean drawn;
+	private final StringBuilder frame = new StringBuilder(1024);
+
+	public BoardRenderer(PrintStream out) {
+
+		this(out, 1, 1, false);
+	}
+
+	// top and left are the screen row and column of the board's corner, counted from 1
+	public BoardRenderer(PrintStream out, int top, int left, boolean compact) {
+
+		this.out = out;
+		this.top = top;
+		this.left = left;
+		this.compact = compact;
+	}
+
+	public int getHeight() {
+
+		return compact ? 8 : 9;
+	}
+
+	public int getWidth() {
+
+		return compact ? 8 : 17;
+	}
+
+	// the next frame is drawn in full, for after the screen was cleared
+	public void invalidate() {
+
+		drawn = false;
+	}
+
+	public void render(PositionSnapshot snapshot, long highlights) {
+
+		frame.setLength(0);
+		append(frame, snapshot, highlights);
+		write(out, frame);
+	}
+
+	static void write(PrintStream out, StringBuilder frame) {
+
+		if (frame.length() > 0) {
+
+			out.append(frame);
+			out.flush();
+		}
+	}
+
+	// adds what changed since the last frame to the buffer, highlighting the squares of the mask
+	public void append(StringBuilder sb, PositionSnapshot snapshot, long highlights) {
+
+		if (!drawn) {
+
+			Arrays.fill(cells, -1);
+
+			if (!compact) {
+
+				for (int row = 0; row < 8; row++) {
+
+					moveTo(sb, top + row, left);
+					sb.append(8 - row).append(' ');
+				}
+				moveTo(sb, top + 8, left);
+				sb.append("  a b c d e f g h");
+			}
+			drawn = true;
+		}
+
+		int last = -1;
+
+		for (int square = 0; square < 64; square++) {
+
+			PieceType type = snapshot.pieceTypeAt(square);
+			int cell = (type == null) ? 0 : (type.ordinal() * 2 + snapshot.colorAt(square).ordinal() + 1);
+
+			if (!compact && (highlights & (1L << square)) != 0) {
+
+				cell |= HIGHLIGHT;
+			}
+
+			if (cells[square] == cell) {
+
+				continue;
+			}
+
+			// cells next to each other on a rank need no cursor move between them
+			if (square != last + 1 || (square & 7) == 0) {
+
+				moveTo(sb, top + (square >> 3), compact ? left + (square & 7) : left + 2 + 2 * (square & 7));
+			}
+
+			cells[square] = cell;
+			appendCell(sb, cell, type, snapshot.colorAt(square));
+			last = square;
+		}
+	}
+
+	private void appendCell(StringBuilder sb, int cell, PieceType type, Color color) {
+
+		if (compact) {
+
+			sb.append((type == null) ? '.' : (color == Color.WHITE) ? type.getLetter() : Character.toLowerCase(type.getLetter()));
+			return;
+		}
+
+		if ((cell & HIGHLIGHT) != 0) {
+
+			sb.append(UI.ANSI_BLUE_BACKGROUND);
+		}
+
+		if (type == null) {
+
+			sb.append('-');
+		} else {
+
+			sb.append((color == Color.WHITE) ? UI.ANSI_WHITE : UI.ANSI_YELLOW).append(type.getLetter());
+		}
+		sb.append(UI.ANSI_RESET).append(' ');
+	}
+
+	static void moveTo(StringBuilder sb, int row, int column) {
+
+		sb.append("\033[").append(row).append(';').append(column).append('H');
+	}
+}
@@ -0,0 +1,34 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import chess.archive.GameArchive;
+import chess.engine.OpeningBookBuilder;
+
+// turns a game archive, for instance one written by PgnImport, into an opening book:
+//   BuildBook <archive> <book> [plies per game] [minimum weight]
+public class BuildBook {
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 2) {
+
+			System.out.println("Usage: BuildBook <archive> <book> [plies per game] [minimum weight]");
+			return;
+		}
+
+		int plies = (args.length > 2) ? Integer.parseInt(args[2]) : OpeningBookBuilder.DEFAULT_MAX_PLIES;
+		int minWeight = (args.length > 3) ? Integer.parseInt(args[3]) : 2;
+		OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+		long start = System.currentTimeMillis();
+
+		try (GameArchive archive = GameArchive.open(Paths.get(args[0]))) {
+
+			builder.addGames(archive);
+		}
+
+		int entries = builder.write(Paths.get(args[1]), minWeight);
+		System.out.println(entries + " entries in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
@@ -0,0 +1,26 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import chess.tablebase.Tablebase;
+
+// generates the rook ending tablebase for Program:
+//   BuildTablebase <file> [threads]
+public class BuildTablebase {
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+
+			System.out.println("Usage: BuildTablebase <file> [threads]");
+			return;
+		}
+
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long start = System.currentTimeMillis();
+		Tablebase tablebase = Tablebase.generate(threads);
+		tablebase.write(Paths.get(args[0]));
+		System.out.println("KRK, KRRK and KRKR in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
@@ -0,0 +1,101 @@
+package application;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import chess.ChessMatch;
+import chess.FenReader;
+import chess.Perft;
+
+// runs perft over fixed positions and reports nodes per second and bytes allocated per node
+public class PerftBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASUREMENT_ITERATIONS = 5;
+
+	private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+	private static final int INGESTED_POSITIONS = 1000000;
+
+	public static void main(String[] args) throws IOException {
+
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+
+		run("standard", Perft.standardPosition(), depth);
+		run("initialSetup", new ChessMatch(), depth);
+		run("kiwipete", ChessMatch.fromFen(KIWIPETE), depth);
+		ingest(INGESTED_POSITIONS);
+	}
+
+	// loads FEN lines from memory into one reused match
+	private static void ingest(int positions) throws IOException {
+
+		StringBuilder sb = new StringBuilder();
+		String[] fens = { Perft.standardPosition().toFen(), new ChessMatch().toFen(), KIWIPETE };
+
+		for (int i = 0; i < positions; i++) {
+
+			sb.append(fens[i % fens.length]).append('\n');
+		}
+
+		byte[] bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		ChessMatch chessMatch = new ChessMatch();
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		int loaded = 0;
+
+		try (FenReader reader = new FenReader(new ByteArrayInputStream(bytes))) {
+
+			while (reader.next(chessMatch)) {
+
+				loaded++;
+			}
+		}
+
+		long elapsed = System.nanoTime() - start;
+		allocated = allocatedBytes() - allocated;
+
+		System.out.println(String.format(Locale.ROOT, "%-14s %d positions, %.0f positions/s, %.1f bytes/position",
+				"fen", loaded, loaded / (elapsed / 1e9), (double) allocated / loaded));
+	}
+
+	private static void run(String name, ChessMatch chessMatch, int depth) {
+
+		Perft perft = new Perft(chessMatch);
+		long nodes = 0;
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+
+			nodes = perft.perft(depth);
+		}
+
+		long bytes = allocatedBytes();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+
+			perft.perft(depth);
+		}
+
+		long elapsed = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		long totalNodes = nodes * MEASUREMENT_ITERATIONS;
+
+		System.out.println(String.format(Locale.ROOT, "%-14s depth %d: %d nodes, %.0f nodes/s, %.1f bytes/node, %.1f MB/s",
+				name, depth, nodes, totalNodes / (elapsed / 1e9), (double) bytes / totalNodes,
+				bytes / (elapsed / 1e9) / (1 << 20)));
+	}
+
+	private static long allocatedBytes() {
+
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,50 @@
+package application;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import chess.archive.GameArchiveWriter;
+import chess.pgn.ImportResult;
+import chess.pgn.PgnImporter;
+
+// checks the games of a PGN file and optionally stores them in a game archive:
+//   PgnImport <games.pgn> [archive] [threads]
+public class PgnImport {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		if (args.length == 0) {
+
+			System.out.println("Usage: PgnImport <games.pgn> [archive] [threads]");
+			return;
+		}
+
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		PgnImporter importer = new PgnImporter(threads);
+		ImportResult result;
+
+		try (Reader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.ISO_8859_1)) {
+
+			if (args.length > 1) {
+
+				try (GameArchiveWriter archive = new GameArchiveWriter(Paths.get(args[1]))) {
+
+					result = importer.importGames(in, archive);
+				}
+			} else {
+
+				result = importer.importGames(in, null);
+			}
+		}
+
+		System.out.println(result);
+
+		for (String reason : result.getReasons()) {
+
+			System.out.println("  " + reason);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package application;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
@@ -11,27 +13,63 @@ import chess.ChassPosition;
 import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
+import chess.Color;
+import chess.engine.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import chess.tablebase.Tablebase;
 
 public class Program {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
 		ChessMatch chessMatch = new ChessMatch();
 		Scanner sc = new Scanner(System.in);
 		List<ChessPiece> captured = new ArrayList<>();
+
+		// optional computer opponent: Program <white|black> [milliseconds per move] [opening book] [tablebase]
+		// where a book of - means none
+		Color computer = (args.length > 0) ? Color.valueOf(args[0].toUpperCase()) : null;
+		long thinkingTime = (args.length > 1) ? Long.parseLong(args[1]) : 1000;
+		ParallelSearch search = new ParallelSearch(Runtime.getRuntime().availableProcessors(),
+				new TranspositionTable(64));
+
+		if (args.length > 2 && !args[2].equals("-")) {
+
+			search.setOpeningBook(OpeningBook.open(Paths.get(args[2])));
+		}
+
+		if (args.length > 3) {
+
+			chessMatch.setTablebase(Tablebase.read(Paths.get(args[3])));
+		}
+
+		// the screen is cleared once, after that only what changed is drawn again
+		BoardRenderer renderer = new BoardRenderer(System.out);
+		UI.clearScreem();
 		
-		while (!chessMatch.getCheckMate()) {
+		while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
 			try {
-				UI.clearScreem();
-				UI.printMatch(chessMatch, captured);
-				System.out.println();
+				UI.printMatch(renderer, chessMatch, captured);
+
+				if (chessMatch.getCurrentPlayer() == computer) {
+
+					SearchResult result = search.search(chessMatch, thinkingTime);
+					ChessPiece capturedPiece = chessMatch.performChessMove(result.getBestMove());
+
+					if (capturedPiece != null) {
+
+						captured.add(capturedPiece);
+					}
+					continue;
+				}
+
 				System.out.print("Source: ");
 				ChassPosition source = UI.readChessPosition(sc);
 				
 				boolean[][] possibleMoves = chessMatch.possibleMoves(source);
-				UI.clearScreem();
-				UI.printBoard(chessMatch.getPieces(), possibleMoves);
-				System.out.println();
+				UI.printBoard(renderer, chessMatch, possibleMoves);
 				
 				System.out.print("Target: ");
 				ChassPosition target = UI.readChessPosition(sc);
@@ -60,8 +98,7 @@ public class Program {
 			}
 		}
 
-		UI.clearScreem();
-		UI.printMatch(chessMatch, captured);
+		UI.printMatch(renderer, chessMatch, captured);
 	}
 
 }
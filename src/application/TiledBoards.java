@@ -0,0 +1,55 @@
+package application;
+
+import java.io.PrintStream;
+
+import chess.PositionSnapshot;
+
+// many compact boards side by side, all of them updated in one write per frame
+public class TiledBoards {
+
+	private final PrintStream out;
+	private final BoardRenderer[] renderers;
+	private final StringBuilder frame = new StringBuilder(4096);
+	private final int bottom;
+
+	public TiledBoards(PrintStream out, int boards, int perRow) {
+
+		this.out = out;
+		this.renderers = new BoardRenderer[boards];
+
+		// a blank column and a blank row between boards
+		for (int i = 0; i < boards; i++) {
+
+			renderers[i] = new BoardRenderer(out, 1 + (i / perRow) * 9, 1 + (i % perRow) * 9, true);
+		}
+		this.bottom = 1 + ((boards + perRow - 1) / perRow) * 9;
+	}
+
+	// missing snapshots leave their tile as it was
+	public void render(PositionSnapshot[] snapshots) {
+
+		frame.setLength(0);
+
+		for (int i = 0; i < renderers.length && i < snapshots.length; i++) {
+
+			if (snapshots[i] != null) {
+
+				renderers[i].append(frame, snapshots[i], 0L);
+			}
+		}
+
+		if (frame.length() > 0) {
+
+			BoardRenderer.moveTo(frame, bottom, 1);
+		}
+		BoardRenderer.write(out, frame);
+	}
+
+	public void invalidate() {
+
+		for (BoardRenderer renderer : renderers) {
+
+			renderer.invalidate();
+		}
+	}
+}
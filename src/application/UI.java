@@ -62,7 +62,10 @@ public class UI {
 		System.out.println();
 		System.out.println("Turn: " + chessMatch.getTurn());
 
-		if (!chessMatch.getCheckMate()) {
+		if (chessMatch.getDraw()) {
+
+			System.out.println("DRAW! (" + drawReason(chessMatch) + ")");
+		} else if (!chessMatch.getCheckMate()) {
 			System.out.println("Waiting player:" + chessMatch.getCurrentPlayer());
 
 			if (chessMatch.getCheck()) {
@@ -72,7 +75,76 @@ public class UI {
 		} else {
 			
 			System.out.println("CHECKMATE!");
-			System.out.println("Winner: " + chessMatch.getCurrentPlayer());
+			System.out.println("Winner: " + chessMatch.getWinner());
+		}
+	}
+
+	// redraws the changed squares and the lines under the board in one write, leaving the
+	// cursor below them for the prompts
+	public static void printMatch(BoardRenderer renderer, ChessMatch chessMatch, List<ChessPiece> captured) {
+
+		StringBuilder sb = new StringBuilder(512);
+		renderer.append(sb, chessMatch.getSnapshot(), 0L);
+		BoardRenderer.moveTo(sb, renderer.getHeight() + 2, 1);
+		sb.append("\033[J");
+		appendCapturePieces(sb, captured);
+		sb.append('\n');
+		sb.append("Turn: ").append(chessMatch.getTurn()).append('\n');
+
+		if (chessMatch.getDraw()) {
+
+			sb.append("DRAW! (").append(drawReason(chessMatch)).append(")\n");
+		} else if (!chessMatch.getCheckMate()) {
+
+			sb.append("Waiting player:").append(chessMatch.getCurrentPlayer()).append('\n');
+
+			if (chessMatch.getCheck()) {
+
+				sb.append("CHECK!\n");
+			}
+		} else {
+
+			sb.append("CHECKMATE!\n");
+			sb.append("Winner: ").append(chessMatch.getWinner()).append('\n');
+		}
+
+		sb.append('\n');
+		BoardRenderer.write(System.out, sb);
+	}
+
+	public static void printBoard(BoardRenderer renderer, ChessMatch chessMatch, boolean[][] possibleMoves) {
+
+		long highlights = 0L;
+
+		for (int i = 0; i < possibleMoves.length; i++) {
+
+			for (int j = 0; j < possibleMoves[i].length; j++) {
+
+				if (possibleMoves[i][j]) {
+
+					highlights |= 1L << (i * 8 + j);
+				}
+			}
+		}
+
+		StringBuilder sb = new StringBuilder(256);
+		renderer.append(sb, chessMatch.getSnapshot(), highlights);
+		BoardRenderer.moveTo(sb, renderer.getHeight() + 2, 1);
+		sb.append("\033[J");
+		BoardRenderer.write(System.out, sb);
+	}
+
+	private static String drawReason(ChessMatch chessMatch) {
+
+		switch (chessMatch.getResult()) {
+		case STALEMATE:
+			return "stalemate";
+		case THREEFOLD_REPETITION:
+			return "threefold repetition";
+		case FIFTY_MOVE_RULE:
+			return "fifty-move rule";
+		default:
+			return "insufficient material";
 		}
 	}
 
@@ -129,6 +201,31 @@ public class UI {
 		System.out.print(" ");
 	}
 
+	private static void appendCapturePieces(StringBuilder sb, List<ChessPiece> captured) {
+
+		sb.append("Capture pieces:\n");
+		sb.append("White: ").append(ANSI_WHITE).append('[');
+		appendCaptured(sb, captured, Color.WHITE);
+		sb.append(']').append('\n').append(ANSI_RESET);
+		sb.append("Black: ").append(ANSI_YELLOW).append('[');
+		appendCaptured(sb, captured, Color.BLACK);
+		sb.append(']').append('\n').append(ANSI_RESET);
+	}
+
+	private static void appendCaptured(StringBuilder sb, List<ChessPiece> captured, Color color) {
+
+		boolean first = true;
+
+		for (ChessPiece piece : captured) {
+
+			if (piece.getColor() == color) {
+
+				sb.append(first ? "" : ", ").append(piece);
+				first = false;
+			}
+		}
+	}
+
 	private static void printCapturePieces(List<ChessPiece> captured) {
 
 		List<ChessPiece> white = captured.stream().filter(x -> x.getColor() == Color.WHITE)
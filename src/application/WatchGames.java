@@ -0,0 +1,77 @@
+package application;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import chess.ChessMatch;
+import chess.GameResult;
+import chess.MoveList;
+import chess.PositionSnapshot;
+
+// random games on a background thread, watched as tiled boards from their snapshots:
+//   WatchGames [boards] [seconds]
+public class WatchGames {
+
+	private static final int PER_ROW = 8;
+	private static final int MAX_PLIES = 200;
+
+	public static void main(String[] args) throws InterruptedException {
+
+		int boards = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+		int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		ChessMatch[] matches = new ChessMatch[boards];
+
+		for (int i = 0; i < boards; i++) {
+
+			matches[i] = new ChessMatch();
+		}
+
+		Thread player = new Thread(() -> play(matches), "player");
+		player.setDaemon(true);
+		player.start();
+
+		TiledBoards tiles = new TiledBoards(System.out, boards, Math.min(boards, PER_ROW));
+		PositionSnapshot[] snapshots = new PositionSnapshot[boards];
+		UI.clearScreem();
+
+		for (long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds); System.nanoTime() < end;) {
+
+			for (int i = 0; i < boards; i++) {
+
+				snapshots[i] = matches[i].getSnapshot();
+			}
+			tiles.render(snapshots);
+			TimeUnit.MILLISECONDS.sleep(100);
+		}
+	}
+
+	private static void play(ChessMatch[] matches) {
+
+		Random random = new Random();
+		MoveList moves = new MoveList();
+
+		while (true) {
+
+			for (ChessMatch chessMatch : matches) {
+
+				int legal = chessMatch.generateLegalMoves(moves);
+
+				if (legal == 0 || chessMatch.getResult() != GameResult.IN_PROGRESS || chessMatch.getTurn() > MAX_PLIES) {
+
+					chessMatch.loadFen(new ChessMatch().toFen());
+				} else {
+
+					chessMatch.performChessMove(moves.get(random.nextInt(legal)));
+				}
+			}
+
+			try {
+
+				TimeUnit.MILLISECONDS.sleep(20);
+			} catch (InterruptedException e) {
+
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package application.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import chess.GameResult;
+
+// plays random legal moves in many matches at once against a local server:
+//   LoadGenerator [matches] [seconds] [requests in flight per match]
+//   LoadGenerator socket [clients] [seconds]
+public class LoadGenerator {
+
+	// games are restarted after this many plies, the rook layout rarely ends on its own
+	private static final int MAX_PLIES = 200;
+
+	private static final LongAdder moves = new LongAdder();
+	private static final LongAdder games = new LongAdder();
+	private static final LongAdder busy = new LongAdder();
+	private static final LongAdder failed = new LongAdder();
+	private static volatile boolean running = true;
+
+	// requests turned away by a full inbox are retried a moment later, not on the spot
+	private static final ScheduledExecutorService retries = Executors
+			.newSingleThreadScheduledExecutor(MatchServer.daemonThreads("retry"));
+
+	public static void main(String[] args) throws Exception {
+
+		if (args.length > 0 && args[0].equals("socket")) {
+
+			int clients = (args.length > 1) ? Integer.parseInt(args[1]) : 64;
+			int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+			runSockets(clients, seconds);
+		} else {
+
+			int matches = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+			int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+			int inFlight = (args.length > 2) ? Integer.parseInt(args[2]) : 1;
+			runInProcess(matches, seconds, inFlight);
+		}
+	}
+
+	private static void runInProcess(int matches, int seconds, int inFlight) throws InterruptedException {
+
+		try (MatchServer server = new MatchServer()) {
+
+			for (int i = 0; i < matches; i++) {
+
+				start(server, inFlight);
+			}
+
+			measure(server, seconds);
+		}
+	}
+
+	private static void start(MatchServer server, int inFlight) {
+
+		Session session = new Session(server.createMatch(), inFlight);
+
+		for (int i = 0; i < inFlight; i++) {
+
+			play(server, session, 0);
+		}
+	}
+
+	// asks for the legal moves, plays one of them and goes on from the callback,
+	// so each match keeps its requests in flight without a thread waiting on it.
+	// the chain that ends the game first owns the restart, the others stop with it
+	private static void play(MatchServer server, Session session, int ply) {
+
+		if (!running || session.over.get()) {
+
+			return;
+		}
+
+		long id = session.id;
+		server.legalMoves(id).thenCompose(legal -> {
+
+			if (legal.isEmpty() || ply >= MAX_PLIES) {
+
+				throw new CompletionException(new GameOver());
+			}
+			return server.move(id, legal.get(ThreadLocalRandom.current().nextInt(legal.size())));
+		}).whenComplete((result, e) -> {
+
+			Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+
+			if (cause == null) {
+
+				moves.increment();
+				play(server, session, (result.getResult() != GameResult.IN_PROGRESS) ? MAX_PLIES : ply + 1);
+			} else if (cause instanceof GameOver) {
+
+				if (session.over.compareAndSet(false, true)) {
+
+					games.increment();
+					server.closeMatch(id);
+					start(server, session.inFlight);
+				}
+			} else if (cause instanceof RejectedExecutionException) {
+
+				busy.increment();
+				retries.schedule(() -> play(server, session, ply), 1, TimeUnit.MILLISECONDS);
+			} else if (!session.over.get()) {
+
+				// another request in flight on the same match played first
+				failed.increment();
+				play(server, session, ply);
+			}
+		});
+	}
+
+	private static void runSockets(int clients, int seconds) throws IOException, InterruptedException {
+
+		try (MatchServer server = new MatchServer(); SocketFrontEnd frontEnd = new SocketFrontEnd(server, 0)) {
+
+			frontEnd.start();
+			ExecutorService pool = Executors.newFixedThreadPool(clients, MatchServer.daemonThreads("client"));
+
+			for (int i = 0; i < clients; i++) {
+
+				pool.execute(() -> client(frontEnd.getPort()));
+			}
+
+			measure(server, seconds);
+			pool.shutdownNow();
+		}
+	}
+
+	private static void client(int port) {
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+			while (running) {
+
+				String id = request(in, out, "new").substring(3);
+
+				for (int ply = 0; running && ply < MAX_PLIES; ply++) {
+
+					String[] legal = request(in, out, "moves " + id).split(" ");
+
+					if (legal.length < 2) {
+
+						break;
+					}
+
+					String reply = request(in, out, "move " + id + " " + legal[1 + ThreadLocalRandom.current().nextInt(legal.length - 1)]);
+
+					if (reply.equals("busy")) {
+
+						busy.increment();
+					} else if (reply.startsWith("error")) {
+
+						failed.increment();
+					} else {
+
+						moves.increment();
+
+						if (reply.endsWith("checkmate") || reply.contains(" draw ")) {
+
+							break;
+						}
+					}
+				}
+				request(in, out, "close " + id);
+				games.increment();
+			}
+		} catch (IOException e) {
+
+			// the run is over
+		}
+	}
+
+	private static String request(BufferedReader in, PrintWriter out, String line) throws IOException {
+
+		out.println(line);
+		out.flush();
+		String reply = in.readLine();
+
+		if (reply == null) {
+
+			throw new IOException("Connection closed");
+		}
+		return reply;
+	}
+
+	private static void measure(MatchServer server, int seconds) throws InterruptedException {
+
+		long start = System.nanoTime();
+
+		for (int i = 1; i <= seconds; i++) {
+
+			TimeUnit.SECONDS.sleep(1);
+			report(server, System.nanoTime() - start);
+		}
+		running = false;
+	}
+
+	private static void report(MatchServer server, long elapsed) {
+
+		System.out.println(String.format(Locale.ROOT,
+				"%5.1fs %s threads, %d matches, %d moves (%.0f/s), %d games, %d busy, %d failed, %d commands",
+				elapsed / 1e9, server.usesVirtualThreads() ? "virtual" : "platform", server.getMatchCount(), moves.sum(),
+				moves.sum() / (elapsed / 1e9), games.sum(), busy.sum(), failed.sum(), server.getCommands()));
+	}
+
+	// the match the requests of one game go to, shared by all of its chains
+	private static class Session {
+
+		final long id;
+		final int inFlight;
+		final AtomicBoolean over = new AtomicBoolean();
+
+		Session(long id, int inFlight) {
+
+			this.id = id;
+			this.inFlight = inFlight;
+		}
+	}
+
+	private static class GameOver extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		GameOver() {
+
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package application.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.ChessMatch;
+
+// one match and the commands waiting for it. a single executor task drains the inbox at a
+// time, so the match is only ever touched by one thread and needs no lock
+class MatchMailbox implements Runnable {
+
+	// commands run before the drain gives its thread back to other matches
+	private static final int BATCH = 32;
+
+	private final long id;
+	private final ChessMatch chessMatch;
+	private final BlockingQueue<Runnable> inbox;
+	private final Executor executor;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	MatchMailbox(long id, ChessMatch chessMatch, int capacity, Executor executor) {
+
+		this.id = id;
+		this.chessMatch = chessMatch;
+		this.inbox = new ArrayBlockingQueue<>(capacity);
+		this.executor = executor;
+	}
+
+	long getId() {
+
+		return id;
+	}
+
+	// only for commands running from this mailbox
+	ChessMatch getChessMatch() {
+
+		return chessMatch;
+	}
+
+	// false when the inbox is full, the caller decides whether to retry
+	boolean offer(Runnable command) {
+
+		if (!inbox.offer(command)) {
+
+			return false;
+		}
+		schedule();
+		return true;
+	}
+
+	@Override
+	public void run() {
+
+		Runnable command;
+		int processed = 0;
+
+		// a command that throws must not leave the flag set, or the inbox is never drained again
+		try {
+
+			while (processed++ < BATCH && (command = inbox.poll()) != null) {
+
+				command.run();
+			}
+		} finally {
+
+			scheduled.set(false);
+
+			// a command offered while the flag was still set would otherwise wait for the next one
+			if (!inbox.isEmpty()) {
+
+				try {
+
+					schedule();
+				} catch (RejectedExecutionException e) {
+
+					// the server is shutting down
+				}
+			}
+		}
+	}
+
+	private void schedule() {
+
+		if (scheduled.compareAndSet(false, true)) {
+
+			try {
+
+				executor.execute(this);
+			} catch (RejectedExecutionException e) {
+
+				scheduled.set(false);
+				throw e;
+			}
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package application.server;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import chess.ChassPosition;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.GameResult;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.PositionSnapshot;
+
+// hosts many independent matches in one process. every match lives in its own mailbox and
+// every call returns a future completed by the thread that drained it
+public class MatchServer implements Closeable {
+
+	public static final int DEFAULT_INBOX_CAPACITY = 16;
+
+	private final int inboxCapacity;
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+	private final ConcurrentHashMap<Long, MatchMailbox> matches = new ConcurrentHashMap<>();
+	private final AtomicLong nextId = new AtomicLong();
+	private final LongAdder commands = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public MatchServer() {
+
+		this(DEFAULT_INBOX_CAPACITY);
+	}
+
+	public MatchServer(int inboxCapacity) {
+
+		if (inboxCapacity < 1) {
+
+			throw new IllegalArgumentException("An inbox needs room for at least one command");
+		}
+
+		this.inboxCapacity = inboxCapacity;
+		ExecutorService virtual = virtualThreadExecutor();
+		this.virtualThreads = virtual != null;
+		this.executor = virtualThreads ? virtual
+				: Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemonThreads("match"));
+	}
+
+	// virtual threads where the runtime has them (Java 21 and later), otherwise null.
+	// looked up by reflection so the server still builds and runs on Java 11
+	static ExecutorService virtualThreadExecutor() {
+
+		try {
+
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException e) {
+
+			return null;
+		}
+	}
+
+	static ThreadFactory daemonThreads(String name) {
+
+		AtomicInteger count = new AtomicInteger();
+		return r -> {
+
+			Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	public long createMatch() {
+
+		return register(new ChessMatch());
+	}
+
+	public long createMatch(String fen) {
+
+		return register(ChessMatch.fromFen(fen));
+	}
+
+	private long register(ChessMatch chessMatch) {
+
+		long id = nextId.incrementAndGet();
+		matches.put(id, new MatchMailbox(id, chessMatch, inboxCapacity, executor));
+		return id;
+	}
+
+	public boolean closeMatch(long id) {
+
+		return matches.remove(id) != null;
+	}
+
+	// plays a move written as in "e2e4", with an optional promotion letter as in "e7e8n"
+	public CompletableFuture<MoveResult> move(long id, String move) {
+
+		return submit(id, chessMatch -> {
+
+			if (chessMatch.getResult() != GameResult.IN_PROGRESS) {
+
+				throw new ChessException("The match is over");
+			}
+
+			if (move.length() < 4 || move.length() > 5) {
+
+				throw new ChessException("Invalid move " + move);
+			}
+
+			ChassPosition source = new ChassPosition(move.charAt(0), move.charAt(1) - '0');
+			ChassPosition target = new ChassPosition(move.charAt(2), move.charAt(3) - '0');
+
+			// checked before the move is played, a bad letter must not leave it half done
+			if (move.length() == 5) {
+
+				if (chessMatch.pieceTypeAt(square(source)) != PieceType.PAWN || (target.getRow() != 1 && target.getRow() != 8)) {
+
+					throw new ChessException("Only a promotion takes a piece letter: " + move);
+				}
+
+				if ("BNRQ".indexOf(Character.toUpperCase(move.charAt(4))) < 0) {
+
+					throw new ChessException("Invalid type for promotion in " + move);
+				}
+			}
+
+			ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
+
+			if (chessMatch.getPromoted() != null && move.length() == 5) {
+
+				chessMatch.replacePromotedPiece(String.valueOf(Character.toUpperCase(move.charAt(4))));
+			}
+
+			return new MoveResult(move, (capturedPiece == null) ? null : capturedPiece.getType().getLetter() + "",
+					chessMatch.getCheck(), chessMatch.getResult(), chessMatch.toFen());
+		});
+	}
+
+	private static int square(ChassPosition position) {
+
+		return (8 - position.getRow()) * 8 + (position.getColumn() - 'a');
+	}
+
+	public CompletableFuture<List<String>> legalMoves(long id) {
+
+		return submit(id, chessMatch -> {
+
+			List<String> legal = new ArrayList<>();
+
+			if (chessMatch.getResult() == GameResult.IN_PROGRESS) {
+
+				MoveList moves = new MoveList();
+				chessMatch.generateLegalMoves(moves);
+
+				for (int i = 0; i < moves.size(); i++) {
+
+					legal.add(Move.toString(moves.get(i)));
+				}
+			}
+			return legal;
+		});
+	}
+
+	public CompletableFuture<String> fen(long id) {
+
+		return submit(id, ChessMatch::toFen);
+	}
+
+	// the position after the last completed move, read straight from the match without
+	// queueing behind its commands. null when there is no such match
+	public PositionSnapshot snapshot(long id) {
+
+		MatchMailbox mailbox = matches.get(id);
+		return (mailbox == null) ? null : mailbox.getChessMatch().getSnapshot();
+	}
+
+	// runs any command against the match on the match's own thread. the future fails with a
+	// RejectedExecutionException when the inbox is full, which is how clients see backpressure
+	public <T> CompletableFuture<T> submit(long id, Function<ChessMatch, T> command) {
+
+		CompletableFuture<T> future = new CompletableFuture<>();
+		MatchMailbox mailbox = matches.get(id);
+
+		if (mailbox == null) {
+
+			future.completeExceptionally(new ChessException("There is no match " + id));
+			return future;
+		}
+
+		boolean accepted;
+
+		try {
+
+			accepted = mailbox.offer(() -> {
+
+				try {
+
+					future.complete(command.apply(mailbox.getChessMatch()));
+				} catch (RuntimeException e) {
+
+					future.completeExceptionally(e);
+				} catch (Error e) {
+
+					// the caller hears of it too, then the error goes on up
+					future.completeExceptionally(e);
+					throw e;
+				}
+			});
+		} catch (RejectedExecutionException e) {
+
+			accepted = false;
+		}
+
+		if (!accepted) {
+
+			rejected.increment();
+			future.completeExceptionally(new RejectedExecutionException("The inbox of match " + id + " is full"));
+		} else {
+
+			commands.increment();
+		}
+		return future;
+	}
+
+	public int getMatchCount() {
+
+		return matches.size();
+	}
+
+	public long getCommands() {
+
+		return commands.sum();
+	}
+
+	public long getRejected() {
+
+		return rejected.sum();
+	}
+
+	public boolean usesVirtualThreads() {
+
+		return virtualThreads;
+	}
+
+	@Override
+	public void close() {
+
+		executor.shutdown();
+		matches.clear();
+	}
+}
@@ -0,0 +1,63 @@
+package application.server;
+
+import chess.GameResult;
+
+// what a client learns after one of its moves has been played
+public class MoveResult {
+
+	private final String move;
+	private final String captured;
+	private final boolean check;
+	private final GameResult result;
+	private final String fen;
+
+	public MoveResult(String move, String captured, boolean check, GameResult result, String fen) {
+
+		this.move = move;
+		this.captured = captured;
+		this.check = check;
+		this.result = result;
+		this.fen = fen;
+	}
+
+	public String getMove() {
+
+		return move;
+	}
+
+	// letter of the captured piece, or null
+	public String getCaptured() {
+
+		return captured;
+	}
+
+	public boolean getCheck() {
+
+		return check;
+	}
+
+	public boolean getCheckMate() {
+
+		return result == GameResult.CHECKMATE;
+	}
+
+	public GameResult getResult() {
+
+		return result;
+	}
+
+	public String getFen() {
+
+		return fen;
+	}
+
+	@Override
+	public String toString() {
+
+		if (result.isDraw()) {
+
+			return fen + " draw " + result.name().toLowerCase();
+		}
+		return fen + (getCheckMate() ? " checkmate" : check ? " check" : "");
+	}
+}
@@ -0,0 +1,122 @@
+package application.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// line protocol on a loopback socket, one command per line:
+//   new [fen]          -> ok <id>
+//   move <id> <move>   -> ok <fen> [check|checkmate|draw <reason>]
+//   moves <id>         -> ok <move> <move> ...
+//   fen <id>           -> ok <fen>
+//   close <id>         -> ok
+// failures answer "error <message>", a full inbox answers "busy"
+public class SocketFrontEnd implements Closeable {
+
+	private final MatchServer server;
+	private final ServerSocket serverSocket;
+	private final ExecutorService connections;
+
+	public SocketFrontEnd(MatchServer server, int port) throws IOException {
+
+		this.server = server;
+		this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+
+		// a connection waits on its socket, so it gets a thread of its own
+		ExecutorService virtual = MatchServer.virtualThreadExecutor();
+		this.connections = (virtual != null) ? virtual : Executors.newCachedThreadPool(MatchServer.daemonThreads("connection"));
+	}
+
+	public int getPort() {
+
+		return serverSocket.getLocalPort();
+	}
+
+	public void start() {
+
+		connections.execute(() -> {
+
+			while (!serverSocket.isClosed()) {
+
+				try {
+
+					Socket socket = serverSocket.accept();
+					connections.execute(() -> serve(socket));
+				} catch (IOException e) {
+
+					// closed while accepting
+				}
+			}
+		});
+	}
+
+	private void serve(Socket socket) {
+
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+			String line;
+
+			while ((line = in.readLine()) != null) {
+
+				out.println(handle(line.trim()));
+				out.flush();
+			}
+		} catch (IOException e) {
+
+			// the client went away
+		}
+	}
+
+	private String handle(String line) {
+
+		String[] words = line.split(" ", 3);
+
+		try {
+
+			switch (words[0]) {
+			case "new":
+				return "ok " + ((words.length > 1) ? server.createMatch(line.substring(4)) : server.createMatch());
+			case "move":
+				return "ok " + server.move(Long.parseLong(words[1]), words[2]).join();
+			case "moves":
+				return "ok " + String.join(" ", server.legalMoves(Long.parseLong(words[1])).join());
+			case "fen":
+				return "ok " + server.fen(Long.parseLong(words[1])).join();
+			case "close":
+				return server.closeMatch(Long.parseLong(words[1])) ? "ok" : "error There is no match " + words[1];
+			default:
+				return "error Unknown command " + words[0];
+			}
+		} catch (CompletionException e) {
+
+			if (e.getCause() instanceof RejectedExecutionException) {
+
+				return "busy";
+			}
+			return "error " + e.getCause().getMessage();
+		} catch (RuntimeException e) {
+
+			return "error " + e.getMessage();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		serverSocket.close();
+		connections.shutdownNow();
+	}
+}
@@ -2,9 +2,19 @@ package boradgame;
 
 public class Board {
 
+	public static final int SIDES = 2;
+	public static final int KINDS = 8;
+	public static final int MAX_SQUARES = 64;
+
 	private int rows;
 	private int columns;
 	private Piece[][] pieces;
+	private Position[] positions;
+
+	// one bit per square, square = row * columns + column
+	private long[][] bitboards;
+	private long[] sideOccupancy;
+	private long occupancy;
 
 	public Board(int rows, int columns) {
 
@@ -12,9 +22,22 @@ public class Board {
 
 			throw new BoradExcetption("Error creating borad: there must be at least 1 row and 1 column");
 		}
+
+		if (rows * columns > MAX_SQUARES) {
+
+			throw new BoradExcetption("Error creating borad: there must be at most " + MAX_SQUARES + " squares");
+		}
 		this.rows = rows;
 		this.columns = columns;
 		this.pieces = new Piece[rows][columns];
+		this.positions = new Position[rows * columns];
+
+		for (int i = 0; i < positions.length; i++) {
+
+			positions[i] = new Position(i / columns, i % columns);
+		}
+		this.bitboards = new long[SIDES][KINDS];
+		this.sideOccupancy = new long[SIDES];
 	}
 
 	public int getRows() {
@@ -46,6 +69,11 @@ public class Board {
 		return pieces[position.getRow()][position.getColumn()];
 	}
 
+	public Piece piece(int square) {
+
+		return pieces[square / columns][square % columns];
+	}
+
 	public void placePiece(Piece piece, Position position) {
 
 		if(thereIsAPiece(position)) {
@@ -53,8 +81,25 @@ public class Board {
 			throw new BoradExcetption("There is already a piece on position " + position);
 		}
 		
+		placePiece(piece, square(position));
+	}
+
+	// pieces placed by square share the board's own Position of that square
+	public void placePiece(Piece piece, int square) {
+
+		if (thereIsAPiece(square)) {
+
+			throw new BoradExcetption("There is already a piece on position " + positions[square]);
+		}
+
+		Position position = positions[square];
 		pieces[position.getRow()][position.getColumn()] = piece;
 		piece.position = position;
+
+		long bit = 1L << square;
+		bitboards[piece.getSide()][piece.getKind()] |= bit;
+		sideOccupancy[piece.getSide()] |= bit;
+		occupancy |= bit;
 	}
 	
 	public Piece removePiece(Position position) {
@@ -64,14 +109,26 @@ public class Board {
 			throw new BoradExcetption("Position not on the board");
 		}
 		
-		if(piece(position) == null) {
-			
+		return removePiece(square(position));
+	}
+
+	public Piece removePiece(int square) {
+
+		Position position = positions[square];
+		Piece aux = pieces[position.getRow()][position.getColumn()];
+
+		if (aux == null) {
+
 			return null;
 		}
-		
-		Piece aux = piece(position);
+
 		aux.position = null;
 		pieces[position.getRow()][position.getColumn()] = null;
+
+		long bit = ~(1L << square);
+		bitboards[aux.getSide()][aux.getKind()] &= bit;
+		sideOccupancy[aux.getSide()] &= bit;
+		occupancy &= bit;
 		
 		return aux;
 	}
@@ -94,4 +151,34 @@ public class Board {
 		}
 		return piece(position) != null;
 	}
+
+	public boolean thereIsAPiece(int square) {
+
+		return (occupancy & (1L << square)) != 0;
+	}
+
+	public int square(int row, int column) {
+
+		return row * columns + column;
+	}
+
+	public int square(Position position) {
+
+		return square(position.getRow(), position.getColumn());
+	}
+
+	public long bitboard(int side, int kind) {
+
+		return bitboards[side][kind];
+	}
+
+	public long occupancy(int side) {
+
+		return sideOccupancy[side];
+	}
+
+	public long occupancy() {
+
+		return occupancy;
+	}
 }
@@ -15,6 +15,11 @@ public abstract class Piece {
 		return board;
 	}
 
+	// side and kind select the bitboards the board keeps this piece in
+	public abstract int getSide();
+
+	public abstract int getKind();
+
 	public abstract boolean[][] possibleMoves();
 
 	public boolean possibleMove(Position position) {
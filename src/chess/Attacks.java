@@ -0,0 +1,248 @@
+package chess;
+
+// attack sets looked up from tables built once, for an 8 x 8 board with square = row * 8 + column.
+// knights and kings have one set per square, sliders use magic hashing: the blockers on the relevant squares times the magic number,
+// shifted down, index the attack set for that occupancy
+public final class Attacks {
+
+	private static final int[][] ROOK_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] BISHOP_DIRECTIONS = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+	private static final int[][] KNIGHT_STEPS = { { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 }, { 1, 2 }, { 2, 1 },
+			{ 2, -1 }, { 1, -2 } };
+	private static final int[][] KING_STEPS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { -1, 1 },
+			{ 1, -1 }, { 1, 1 } };
+
+	private static final long[] KNIGHT_ATTACKS = new long[64];
+	private static final long[] KING_ATTACKS = new long[64];
+
+	// pawn captures by color ordinal, white moving towards row 0
+	private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+	// squares strictly between two squares on a rank, file or diagonal, empty otherwise
+	private static final long[][] BETWEEN = new long[64][64];
+
+	// found offline by trying sparse random numbers until every blocker subset of the square mapped
+	// to its own attack set; they depend on the square numbering above
+	private static final long[] ROOK_MAGICS = {
+			0x0980008011400020L, 0x8340004410002000L, 0x0880200090008268L, 0x0080080080100004L,
+			0x8100110004020800L, 0x0300010004000822L, 0x08801A0029000080L, 0x8100050001204882L,
+			0x0844800081400320L, 0x0804402010004000L, 0x0108802003100480L, 0x5C00808010000800L,
+			0x0003001801001014L, 0x0002000200041008L, 0x0004008108042210L, 0x0105000100009042L,
+			0x0400808000400021L, 0xC100404010002000L, 0x0060008010002088L, 0x0400808008001000L,
+			0x4440808008000400L, 0x1002008004000280L, 0x40024400300D1248L, 0x0010020000408104L,
+			0x0101008200204200L, 0x8020002040005000L, 0x4100100080802000L, 0x4008006A80100280L,
+			0x0021008500100800L, 0x5000040080800200L, 0x0010040101000200L, 0x6140004200008104L,
+			0x4000400020800090L, 0x2020002080804000L, 0x0000408202002010L, 0x0080100501000820L,
+			0x0004040080800800L, 0xA01A800200800400L, 0x0014820104009008L, 0x0008004082000401L,
+			0x0029804004608010L, 0x0140002000818048L, 0x000C410420010014L, 0x0020100008008080L,
+			0x8000080004008080L, 0x0082008004008002L, 0x1002000801020004L, 0x0010848505620004L,
+			0x0000801840002080L, 0x2002010C80403200L, 0x9000114220010300L, 0x0001000820100100L,
+			0x000A800401080080L, 0xC001400410200801L, 0x4800480102300400L, 0x1000010040840200L,
+			0x0002800442162101L, 0x4000810010204202L, 0x0400201200084082L, 0x8200210004081001L,
+			0x1002001004200802L, 0x0005000208040001L, 0x0002002701AC0822L, 0x000010250184004AL };
+
+	private static final long[] BISHOP_MAGICS = {
+			0x4014700208012480L, 0x0220014200A10001L, 0x8108084040806120L, 0x200E0A02001A00C0L,
+			0x4442021080243000L, 0x4C00901008100050L, 0x0800821110404840L, 0x0000120222024003L,
+			0x008A08A041020200L, 0x000118460C0428A0L, 0x0000314B06020022L, 0x0804180481080025L,
+			0x0000340520004880L, 0x0440309004200008L, 0x2108084402A01000L, 0x0328024422082200L,
+			0xC21200C004310C00L, 0x460840040820C400L, 0x0010004A02720020L, 0x000800488A044044L,
+			0x0025000A9040000AL, 0x0009010600822104L, 0x0021040400821002L, 0x0801000A19010120L,
+			0x0004048210915000L, 0x0310222005242C05L, 0x00544800101C8010L, 0x2308080000820003L,
+			0x2008820004010401L, 0x0650110244208800L, 0x0009324401080802L, 0x01008022A6010C40L,
+			0x8081200804200940L, 0x300C040305200240L, 0x0002062200240800L, 0x2801400A00042200L,
+			0x14090104000202A0L, 0x05B0020080081048L, 0x0A10010910020880L, 0xC403020222060B00L,
+			0x260D301250402080L, 0x0000A80802088800L, 0x0001008041023000L, 0x0000020202016420L,
+			0x0008540502140400L, 0x0201101008400B80L, 0x0104104202000058L, 0x0002080101000031L,
+			0x4200A20120200004L, 0x0004208410090400L, 0x10A0182508088000L, 0x1814081420880800L,
+			0x1008810850340611L, 0x0081482248020610L, 0x0009080800940000L, 0x0060010240890800L,
+			0x048A920802080500L, 0x26000E9204900404L, 0x200002A080482200L, 0xAC8018422020A808L,
+			0x929A000440A50308L, 0x41801040826C0110L, 0x0140C01081010101L, 0xC0A0012206040EA0L };
+
+	private static final long[] ROOK_MASKS = new long[64];
+	private static final int[] ROOK_SHIFTS = new int[64];
+	private static final int[] ROOK_OFFSETS = new int[64];
+
+	private static final long[] BISHOP_MASKS = new long[64];
+	private static final int[] BISHOP_SHIFTS = new int[64];
+	private static final int[] BISHOP_OFFSETS = new int[64];
+
+	// rook and bishop entries of every square in one array
+	private static final long[] SLIDER_ATTACKS;
+
+	static {
+
+		int size = 0;
+
+		for (int square = 0; square < 64; square++) {
+
+			KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_STEPS);
+			KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+			PAWN_ATTACKS[Color.WHITE.ordinal()][square] = stepAttacks(square, new int[][] { { -1, -1 }, { -1, 1 } });
+			PAWN_ATTACKS[Color.BLACK.ordinal()][square] = stepAttacks(square, new int[][] { { 1, -1 }, { 1, 1 } });
+
+			ROOK_MASKS[square] = relevantMask(square, ROOK_DIRECTIONS);
+			ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+			ROOK_OFFSETS[square] = size;
+			size += 1 << Long.bitCount(ROOK_MASKS[square]);
+
+			BISHOP_MASKS[square] = relevantMask(square, BISHOP_DIRECTIONS);
+			BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+			BISHOP_OFFSETS[square] = size;
+			size += 1 << Long.bitCount(BISHOP_MASKS[square]);
+		}
+
+		SLIDER_ATTACKS = new long[size];
+
+		for (int square = 0; square < 64; square++) {
+
+			fill(square, ROOK_DIRECTIONS, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square],
+					ROOK_OFFSETS[square]);
+			fill(square, BISHOP_DIRECTIONS, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square],
+					BISHOP_OFFSETS[square]);
+		}
+
+		for (int from = 0; from < 64; from++) {
+
+			for (int to = 0; to < 64; to++) {
+
+				long target = 1L << to;
+
+				if ((rook(from, 0L) & target) != 0) {
+
+					BETWEEN[from][to] = rook(from, target) & rook(to, 1L << from);
+				} else if ((bishop(from, 0L) & target) != 0) {
+
+					BETWEEN[from][to] = bishop(from, target) & bishop(to, 1L << from);
+				}
+			}
+		}
+	}
+
+	private Attacks() {
+	}
+
+	public static long knight(int square) {
+
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long king(int square) {
+
+		return KING_ATTACKS[square];
+	}
+
+	public static long pawn(Color color, int square) {
+
+		return PAWN_ATTACKS[color.ordinal()][square];
+	}
+
+	public static long between(int from, int to) {
+
+		return BETWEEN[from][to];
+	}
+
+	public static long rook(int square, long occupancy) {
+
+		long blockers = occupancy & ROOK_MASKS[square];
+		return SLIDER_ATTACKS[ROOK_OFFSETS[square] + (int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	public static long bishop(int square, long occupancy) {
+
+		long blockers = occupancy & BISHOP_MASKS[square];
+		return SLIDER_ATTACKS[BISHOP_OFFSETS[square]
+				+ (int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	public static long queen(int square, long occupancy) {
+
+		return rook(square, occupancy) | bishop(square, occupancy);
+	}
+
+	// squares whose occupancy changes the attack set: the rays without their last square
+	private static long relevantMask(int square, int[][] directions) {
+
+		long mask = 0L;
+
+		for (int[] direction : directions) {
+
+			int row = square / 8 + direction[0];
+			int column = square % 8 + direction[1];
+
+			while (inside(row + direction[0], column + direction[1])) {
+
+				mask |= 1L << (row * 8 + column);
+				row += direction[0];
+				column += direction[1];
+			}
+		}
+		return mask;
+	}
+
+	// walks every blocker subset of the mask and stores the ray walk result under its magic index
+	private static void fill(int square, int[][] directions, long mask, long magic, int shift, int offset) {
+
+		long blockers = 0L;
+
+		do {
+
+			int index = offset + (int) ((blockers * magic) >>> shift);
+			long attacks = slowAttacks(square, blockers, directions);
+
+			if (SLIDER_ATTACKS[index] != 0 && SLIDER_ATTACKS[index] != attacks) {
+
+				throw new IllegalStateException("Magic number of square " + square + " maps two attack sets together");
+			}
+			SLIDER_ATTACKS[index] = attacks;
+			blockers = (blockers - mask) & mask;
+		} while (blockers != 0);
+	}
+
+	private static long stepAttacks(int square, int[][] steps) {
+
+		long attacks = 0L;
+
+		for (int[] step : steps) {
+
+			int row = square / 8 + step[0];
+			int column = square % 8 + step[1];
+
+			if (inside(row, column)) {
+
+				attacks |= 1L << (row * 8 + column);
+			}
+		}
+		return attacks;
+	}
+
+	private static long slowAttacks(int square, long occupancy, int[][] directions) {
+
+		long attacks = 0L;
+
+		for (int[] direction : directions) {
+
+			int row = square / 8 + direction[0];
+			int column = square % 8 + direction[1];
+
+			while (inside(row, column)) {
+
+				long bit = 1L << (row * 8 + column);
+				attacks |= bit;
+
+				if ((occupancy & bit) != 0) {
+
+					break;
+				}
+				row += direction[0];
+				column += direction[1];
+			}
+		}
+		return attacks;
+	}
+
+	private static boolean inside(int row, int column) {
+
+		return row >= 0 && row < 8 && column >= 0 && column < 8;
+	}
+}
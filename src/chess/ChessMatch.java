@@ -2,8 +2,8 @@ package chess;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import boradgame.Board;
 import boradgame.Piece;
@@ -14,27 +14,84 @@ import chess.pieces.Knight;
 import chess.pieces.Pawn;
 import chess.pieces.Queen;
 import chess.pieces.Rook;
+import chess.tablebase.Tablebase;
 
 public class ChessMatch {
 
+	// the regular starting position, this match starts from the rook layout of initialSetup
+	public static final String STANDARD_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	// b8, d8 and so on, the squares a bishop on a7 can reach
+	private static final long DARK_SQUARES = 0x55AA55AA55AA55AAL;
+
 	private Board board;
 	private int turn;
 	private Color currentPlayer;
 	private boolean check;
 	private boolean checkMate;
+	private GameResult result = GameResult.IN_PROGRESS;
 	private ChessPiece enPassantVulnerable;
 	private ChessPiece promoted;
 
-	private List<Piece> piecesOnTheBoard = new ArrayList<>();
+	// squares attacked from each occupied square, and their union per color
+	private long[] attacksFrom = new long[Board.MAX_SQUARES];
+	private long[] attackMaps = new long[Board.SIDES];
+
+	private long hash;
+	private int castlingRights;
+	private int enPassantColumn = -1;
+
+	// moves since the last capture or pawn move
+	private int halfmoveClock;
+
+	// material of each color, kept up to date as pieces come and go
+	private int[] material = new int[Board.SIDES];
+
+	// what makeMove(int) needs to take its moves back, one record per ply
+	private int plies;
+	private UndoRecord[] undoRecords = grow(new UndoRecord[0], 64);
+
+	// line each pinned piece may still move on, by square, filled by generateLegal
+	private long[] pinLines = new long[Board.MAX_SQUARES];
+
+	// legal targets of every square for the side to move, worked out once per ply and
+	// shared by possibleMoves and the move validation
+	private long[] legalTargets = new long[Board.MAX_SQUARES];
+	private boolean legalTargetsValid;
+	private MoveList legalMoves = new MoveList();
+
+	// pseudo-legal targets looked at by the legal move generator, reported by the move events
+	private int examined;
+
+	// written by the thread playing the match, read by any other
+	private volatile PositionSnapshot published;
+
+	// exact results for the rook endings, when one is loaded
+	private Tablebase tablebase;
+
+	private PieceList piecesOnTheBoard = new PieceList();
+	private PieceList sparePieces = new PieceList();
 	private List<Piece> capturePieces = new ArrayList<>();
 
 	public ChessMatch() {
 
-		board = new Board(8, 8);
+		this(Color.WHITE);
 		this.initialSetup();
+		publish();
+
+	}
+
+	// empty board, filled through placeNewPiece
+	ChessMatch(Color currentPlayer) {
+
+		board = new Board(8, 8);
 		this.turn = 1;
-		this.currentPlayer = Color.WHITE;
+		this.currentPlayer = currentPlayer;
 
+		if (currentPlayer == Color.BLACK) {
+
+			hash ^= Zobrist.blackToMove();
+		}
 	}
 
 	public boolean getCheckMate() {
@@ -42,6 +99,16 @@ public class ChessMatch {
 		return this.checkMate;
 	}
 
+	public boolean getDraw() {
+
+		return result.isDraw();
+	}
+
+	public GameResult getResult() {
+
+		return this.result;
+	}
+
 	public int getTurn() {
 
 		return this.turn;
@@ -52,6 +119,12 @@ public class ChessMatch {
 		return this.currentPlayer;
 	}
 
+	// the side that gave mate, null while nobody has won
+	public Color getWinner() {
+
+		return checkMate ? opponent(currentPlayer) : null;
+	}
+
 	public boolean getCheck() {
 		return this.check;
 	}
@@ -61,351 +134,1452 @@ public class ChessMatch {
 		return this.promoted;
 	}
 
+	public long getHash() {
+
+		return this.hash;
+	}
+
 	public ChessPiece getEnPassantVulnerable() {
 
 		return this.enPassantVulnerable;
 	}
 
+	public int getHalfmoveClock() {
+
+		return this.halfmoveClock;
+	}
+
+	public int getCastlingRights() {
+
+		return this.castlingRights;
+	}
+
+	public Tablebase getTablebase() {
+
+		return this.tablebase;
+	}
+
+	public void setTablebase(Tablebase tablebase) {
+
+		this.tablebase = tablebase;
+	}
+
+	public int getMaterial(Color color) {
+
+		return material[color.ordinal()];
+	}
+
+	public boolean isSquareAttacked(int square, Color color) {
+
+		return (attackMaps[color.ordinal()] & (1L << square)) != 0;
+	}
+
 	public boolean[][] possibleMoves(ChassPosition sourcePosition) {
 
 		Position position = sourcePosition.toPosition();
 		validateSourcePosition(position);
-		return board.piece(position).possibleMoves();
+
+		long targets = legalTargets(board.square(position));
+		boolean[][] mat = new boolean[board.getRows()][board.getColumns()];
+
+		while (targets != 0) {
+
+			int target = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			mat[target / board.getColumns()][target % board.getColumns()] = true;
+		}
+		return mat;
 	}
 
-	public ChessPiece[][] getPieces() {
+	// squares the piece on a square can legally move to, empty unless it belongs to the side to move
+	public long legalTargets(int square) {
 
-		ChessPiece[][] mat = new ChessPiece[this.board.getRows()][this.board.getColumns()];
+		if (!legalTargetsValid) {
 
-		for (int i = 0; i < this.board.getRows(); i++) {
+			MoveEvents.LegalMoves event = new MoveEvents.LegalMoves();
+			event.begin();
+			int tried = examined;
 
-			for (int j = 0; j < this.board.getColumns(); j++) {
+			// the generator masks targets by checkers and pins instead of playing them, so examined
+			// grows by the pseudo-legal targets it looked at, not by moves tried
+			generateLegalMoves(legalMoves);
+			Arrays.fill(legalTargets, 0L);
 
-				mat[i][j] = (ChessPiece) this.board.piece(i, j);
+			for (int i = 0; i < legalMoves.size(); i++) {
+
+				int move = legalMoves.get(i);
+				legalTargets[Move.source(move)] |= 1L << Move.target(move);
 			}
+			legalTargetsValid = true;
+
+			event.pseudoMoves = examined - tried;
+			event.legalMoves = legalMoves.size();
+			event.commit();
 		}
+		return legalTargets[square];
+	}
 
-		return mat;
+	// writes the pseudo-legal moves of every piece of one side into the buffer
+	public int generateMoves(Color side, MoveList moves) {
+
+		moves.clear();
+		long opponentPieces = board.occupancy(opponent(side).ordinal());
+		long pieces = board.occupancy(side.ordinal());
+
+		while (pieces != 0) {
+
+			int source = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+
+			ChessPiece p = (ChessPiece) board.piece(source);
+			addMoves(moves, p.getType(), source, p.moveMask(), opponentPieces);
+		}
+		return moves.size();
 	}
 
-	public ChessPiece performChessMove(ChassPosition sourcePosition, ChassPosition targetPosition) {
+	// one move per target, four when a pawn reaches the last row. returns how many were added
+	private int addMoves(MoveList moves, PieceType type, int source, long targets, long opponentPieces) {
 
-		Position source = sourcePosition.toPosition();
-		Position target = sourcePosition.toPosition();
-		validateSourcePosition(source);
-		validateTargetPosition(source, target);
-		Piece capturedPiece = makeMove(source, target);
+		int count = 0;
+
+		while (targets != 0) {
 
-		if (testCheck(currentPlayer)) {
+			int target = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
 
-			undoMove(source, target, capturedPiece);
+			boolean capture = (opponentPieces & (1L << target)) != 0;
 
-			throw new ChessException("you can't put yourself in check");
+			if (type == PieceType.PAWN && isPromotionSquare(target)) {
 
+				moves.add(Move.promotion(source, target, PieceType.QUEEN, capture));
+				moves.add(Move.promotion(source, target, PieceType.ROOK, capture));
+				moves.add(Move.promotion(source, target, PieceType.BISHOP, capture));
+				moves.add(Move.promotion(source, target, PieceType.KNIGHT, capture));
+				count += 4;
+				continue;
+			}
+			moves.add(Move.of(source, target, flags(type, source, target, capture)));
+			count++;
 		}
+		return count;
+	}
 
-		ChessPiece movedPiece = (ChessPiece) board.piece(target);
+	// the legal moves of one side in a single pass. checkers, pinned pieces and the squares
+	// that answer a check are worked out once, so no move is tried on the board. without a
+	// buffer it stops at the first legal move, for the checkmate and stalemate tests
+	private int generateLegal(Color side, MoveList moves) {
 
-		// #specialmove promotion
-		promoted = null;
-		if (movedPiece instanceof Pawn) {
+		int us = side.ordinal();
+		long ours = board.occupancy(us);
+		long theirs = board.occupancy(1 - us);
+		long occupancy = ours | theirs;
+		int king = Long.numberOfTrailingZeros(board.bitboard(us, PieceType.KING.ordinal()));
+		long checkers = attackers(king, occupancy, side);
+		int count = 0;
+
+		if (moves != null) {
+
+			moves.clear();
+		}
+
+		// the king is taken off the board for its own steps, so a slider's ray goes on behind it
+		long kingTargets = Attacks.king(king) & ~ours;
+		long safe = 0L;
+		examined += Long.bitCount(kingTargets);
+
+		for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+
+			int target = Long.numberOfTrailingZeros(targets);
 
-			if ((movedPiece.getColor() == Color.WHITE && target.getRow() == 0)
-					|| movedPiece.getColor() == Color.BLACK && target.getRow() == 7) {
+			if (attackers(target, occupancy ^ (1L << king), side) == 0) {
 
-				promoted = (ChessPiece) board.piece(target);
-				promoted = replacePromotedPiece("Q");
+				safe |= 1L << target;
 			}
 		}
-		check = (testCheck(opponent(currentPlayer))) ? true : false;
 
-		if (testeCheckMate(opponent(currentPlayer))) {
+		// #specialmove castling, the king checks the squares it crosses itself
+		if (checkers == 0) {
 
-			checkMate = true;
+			safe |= king(side).moveMask() & ~Attacks.king(king);
+		}
 
-		} else {
-			this.nextTurn();
+		if (safe != 0) {
+
+			if (moves == null) {
+
+				return 1;
+			}
+			count += addMoves(moves, PieceType.KING, king, safe, theirs);
 		}
 
-		// #espicialMove en passant
-		if (movedPiece instanceof Pawn
-				&& (target.getRow() == source.getRow() - 2 || target.getRow() == source.getRow() + 2)) {
+		// in double check only the king can move
+		if (Long.bitCount(checkers) > 1) {
 
-			enPassantVulnerable = movedPiece;
-		} else {
+			return count;
+		}
+
+		// a single check is answered by taking the checker or stepping in between
+		long evasions = ~ours;
 
-			enPassantVulnerable = null;
+		if (checkers != 0) {
+
+			evasions = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
 		}
-		return (ChessPiece) capturedPiece;
 
-	}
+		// pieces alone between the king and an enemy slider can only move along that line
+		long pinned = 0L;
+		long snipers = (Attacks.rook(king, theirs) & sliders(1 - us, PieceType.ROOK))
+				| (Attacks.bishop(king, theirs) & sliders(1 - us, PieceType.BISHOP));
 
-	public ChessPiece replacePromotedPiece(String type) {
+		for (; snipers != 0; snipers &= snipers - 1) {
 
-		if (promoted == null) {
+			int sniper = Long.numberOfTrailingZeros(snipers);
+			long line = Attacks.between(king, sniper);
+			long blockers = line & occupancy;
 
-			throw new IllegalStateException("There is no piece to be promoted");
+			if (Long.bitCount(blockers) == 1 && (blockers & ours) != 0) {
+
+				pinned |= blockers;
+				pinLines[Long.numberOfTrailingZeros(blockers)] = line | (1L << sniper);
+			}
 		}
 
-		if (!type.equals("B") && !type.equals("N") && !type.equals("R") && !type.equals("Q")) {
+		long pieces = ours & ~(1L << king);
 
-			throw new InvalidParameterException("Invalid type for promotion");
+		for (; pieces != 0; pieces &= pieces - 1) {
+
+			int source = Long.numberOfTrailingZeros(pieces);
+			ChessPiece p = (ChessPiece) board.piece(source);
+			PieceType type = p.getType();
+			long targets = p.moveMask();
+			examined += Long.bitCount(targets);
+
+			// #specialmove en passant takes a pawn off a third square, so it is checked on its own
+			if (type == PieceType.PAWN) {
+
+				long enPassant = targets & Attacks.pawn(side, source) & ~theirs;
+				targets &= ~enPassant;
+
+				if (enPassant != 0 && isLegalEnPassant(side, king, source, Long.numberOfTrailingZeros(enPassant), occupancy)) {
+
+					if (moves == null) {
+
+						return 1;
+					}
+					count += addMoves(moves, type, source, enPassant, theirs);
+				}
+			}
+
+			targets &= evasions;
+
+			if ((pinned & (1L << source)) != 0) {
+
+				targets &= pinLines[source];
+			}
+
+			if (targets != 0) {
+
+				if (moves == null) {
+
+					return 1;
+				}
+				count += addMoves(moves, type, source, targets, theirs);
+			}
 		}
+		return count;
+	}
 
-		Position pos = promoted.getChessPosition().toPosition();
-		Piece p = board.removePiece(pos);
-		piecesOnTheBoard.remove(p);
-		ChessPiece newpPiece = newPiece(type, promoted.getColor());
-		board.placePiece(newpPiece, pos);
-		piecesOnTheBoard.add(newpPiece);
-		
-		return newpPiece;
+	// with the pawn moved and the pawn it takes removed, the king must not be attacked
+	private boolean isLegalEnPassant(Color side, int king, int source, int target, long occupancy) {
+
+		int captured = (source & ~7) | (target & 7);
+		long after = (occupancy & ~(1L << source) & ~(1L << captured)) | (1L << target);
+		return (attackers(king, after, side) & ~(1L << captured)) == 0;
 	}
 
-	private ChessPiece newPiece(String type, Color color) {
+	// enemy pieces of the side that attack the square, with the given occupancy blocking sliders
+	private long attackers(int square, long occupancy, Color side) {
 
-		if (type.equals("B"))
-			return new Bishop(board, color);
-		if (type.equals("N"))
-			return new Knight(board, color);
-		if (type.equals("Q"))
-			return new Queen(board, color);
-		return new Bishop(board, color);
+		int them = 1 - side.ordinal();
+		return (Attacks.knight(square) & board.bitboard(them, PieceType.KNIGHT.ordinal()))
+				| (Attacks.king(square) & board.bitboard(them, PieceType.KING.ordinal()))
+				| (Attacks.pawn(side, square) & board.bitboard(them, PieceType.PAWN.ordinal()))
+				| (Attacks.rook(square, occupancy) & sliders(them, PieceType.ROOK))
+				| (Attacks.bishop(square, occupancy) & sliders(them, PieceType.BISHOP));
 	}
 
-	private void validateTargetPosition(Position source, Position target) {
+	// rooks or bishops of one side together with its queens
+	private long sliders(int side, PieceType type) {
 
-		if (!board.piece(source).possibleMove(target)) {
+		return board.bitboard(side, type.ordinal()) | board.bitboard(side, PieceType.QUEEN.ordinal());
+	}
 
-			throw new ChessException("The chosen piece can't move to target position");
-		}
+	private boolean isPromotionSquare(int square) {
+
+		int row = square / board.getColumns();
+		return row == 0 || row == board.getRows() - 1;
 	}
 
-	private Piece makeMove(Position source, Position target) {
+	// the special move flags a piece moving from source to target carries
+	private int flags(PieceType type, int source, int target, boolean capture) {
 
-		ChessPiece p = (ChessPiece) board.removePiece(source);
-		p.increaseMoveCount();
-		Piece capturePiece = board.removePiece(target);
-		board.placePiece(p, target);
+		int columns = board.getColumns();
 
-		if (capturePiece != null) {
+		if (type == PieceType.PAWN) {
 
-			piecesOnTheBoard.remove(capturePiece);
-			capturePieces.add(capturePiece);
-		}
+			if (target - source == 2 * columns || source - target == 2 * columns) {
 
-		// #special move castling kingside rook
-		if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
+				return Move.DOUBLE_PAWN_PUSH;
+			}
+			if (!capture && target % columns != source % columns) {
 
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3);
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1);
-			ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-			board.placePiece(rook, targetT);
-			rook.increaseMoveCount();
+				return Move.EN_PASSANT;
+			}
+		} else if (type == PieceType.KING) {
+
+			if (target == source + 2) {
+
+				return Move.KING_CASTLE;
+			}
+			if (target == source - 2) {
+
+				return Move.QUEEN_CASTLE;
+			}
 		}
+		return capture ? Move.CAPTURE : Move.QUIET;
+	}
+
+	public ChessPiece[][] getPieces() {
 
-		// #special move castling queenside rook
-		if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
+		ChessPiece[][] mat = new ChessPiece[this.board.getRows()][this.board.getColumns()];
 
-			Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-			Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-			ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-			board.placePiece(rook, targetT);
-			rook.increaseMoveCount();
+		for (int i = 0; i < this.board.getRows(); i++) {
+
+			for (int j = 0; j < this.board.getColumns(); j++) {
+
+				mat[i][j] = (ChessPiece) this.board.piece(i, j);
+			}
 		}
 
-		// #specialmove en passant
-		if (p instanceof Pawn) {
+		return mat;
+	}
+
+	public ChessPiece performChessMove(ChassPosition sourcePosition, ChassPosition targetPosition) {
 
-			if (source.getColumn() != target.getColumn() && capturePiece == null) {
+		return performChessMove(sourcePosition, targetPosition, PieceType.QUEEN);
+	}
 
-				Position pawPostion;
+	// a pawn reaching the last rank becomes the given piece, a human player can still swap it
+	// through replacePromotedPiece
+	private ChessPiece performChessMove(ChassPosition sourcePosition, ChassPosition targetPosition, PieceType promotion) {
 
-				if (p.getColor() == Color.WHITE) {
+		MoveEvents.PerformMove performEvent = new MoveEvents.PerformMove();
+		performEvent.begin();
+		int tried = examined;
 
-					pawPostion = new Position(target.getRow() + 1, target.getColumn());
-				} else {
+		Position source = sourcePosition.toPosition();
+		Position target = targetPosition.toPosition();
+		MoveEvents.Validation validation = new MoveEvents.Validation();
+		validation.begin();
+		validateSourcePosition(source);
+		validateTargetPosition(source, target);
+		validation.pseudoMoves = examined - tried;
+		validation.commit();
 
-					pawPostion = new Position(target.getRow() - 1, target.getColumn());
+		int sourceSquare = board.square(source);
+		int targetSquare = board.square(target);
+		PieceType type = ((ChessPiece) board.piece(sourceSquare)).getType();
+		boolean capture = board.thereIsAPiece(targetSquare);
+		int move = (type == PieceType.PAWN && isPromotionSquare(targetSquare))
+				? Move.promotion(sourceSquare, targetSquare, promotion, capture)
+				: Move.of(sourceSquare, targetSquare, flags(type, sourceSquare, targetSquare, capture));
 
-				}
+		MoveEvents.MakeMove makeEvent = new MoveEvents.MakeMove();
+		makeEvent.begin();
+		makeMove(move);
+		makeEvent.commit();
 
-				capturePiece = board.removePiece(pawPostion);
-				capturePieces.add(capturePiece);
-				piecesOnTheBoard.remove(capturePiece);
+		ChessPiece capturedPiece = undoRecords[plies - 1].capturedPiece;
 
-			}
+		// #specialmove promotion
+		promoted = Move.isPromotion(move) ? (ChessPiece) board.piece(targetSquare) : null;
+		completeMove();
+
+		if (performEvent.shouldCommit()) {
+
+			performEvent.move = Move.toString(move);
+			performEvent.pseudoMoves = examined - tried;
+			performEvent.commit();
 		}
+		return capturedPiece;
 
-		return capturePiece;
 	}
 
-	private void undoMove(Position source, Position target, Piece capturedPiece) {
+	// check, checkmate and the draws for the side now to move, then the new snapshot. runs again
+	// when a promotion replaces the queen, since a knight can give check where the queen did not
+	private void completeMove() {
+
+		MoveEvents.TestCheck checkEvent = new MoveEvents.TestCheck();
+		checkEvent.begin();
+		check = testCheck(currentPlayer);
+		checkEvent.check = check;
+		checkEvent.commit();
+
+		MoveEvents.TestCheckMate checkMateEvent = new MoveEvents.TestCheckMate();
+		checkMateEvent.begin();
+		int replies = examined;
+
+		// the mated side stays the side to move, as the FEN of the final position says
+		updateResult();
+		checkMateEvent.pseudoMoves = examined - replies;
+		checkMateEvent.checkMate = checkMate;
+		checkMateEvent.commit();
+		publish();
+	}
 
-		ChessPiece p = (ChessPiece) board.removePiece(target);
-		p.decreaseMoveCount();
-		board.placePiece(p, source);
+	// independent copy of the position, for searches running on other threads
+	public ChessMatch copy() {
 
-		if (capturedPiece != null) {
+		ChessMatch copy = new ChessMatch(currentPlayer);
+		long pieces = board.occupancy();
+
+		while (pieces != 0) {
 
-			board.placePiece(capturedPiece, target);
-			capturePieces.remove(capturedPiece);
-			piecesOnTheBoard.add(capturedPiece);
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
 
+			ChessPiece p = (ChessPiece) board.piece(square);
+			ChessPiece piece = copy.newPiece(p.getType(), p.getColor());
+			piece.setMoveCount(p.getMoveCount());
+			copy.placeNewPiece(copy.position(square), piece);
+
+			if (p == enPassantVulnerable) {
+
+				copy.setEnPassantVulnerable(piece);
+			}
+
+			if (p == promoted) {
+
+				copy.promoted = piece;
+			}
 		}
 
-		// #special move castling kingside rook
-		if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
+		// the positions since the last capture or pawn move come along, so a search on the copy
+		// sees the same repetitions. those records hold the hash and the move only, the copy
+		// cannot take them back
+		int first = Math.max(0, plies - halfmoveClock);
 
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3);
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1);
-			ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
-			rook.decreaseMoveCount();
+		if (plies - first > copy.undoRecords.length) {
+
+			copy.undoRecords = grow(copy.undoRecords, plies - first);
 		}
 
-		// #special move castling queenside rook
-		if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
+		for (int i = first; i < plies; i++) {
 
-			Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-			Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-			ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
-			rook.decreaseMoveCount();
+			UndoRecord record = copy.undoRecords[copy.plies++];
+			record.hash = undoRecords[i].hash;
+			record.move = undoRecords[i].move;
 		}
 
-		// #specialmove en passant
-		if (p instanceof Pawn) {
+		copy.turn = turn;
+		copy.halfmoveClock = halfmoveClock;
+		copy.check = check;
+		copy.checkMate = checkMate;
+		copy.result = result;
+		copy.tablebase = tablebase;
+		copy.capturePieces.addAll(capturePieces);
+		copy.publish();
+		return copy;
+	}
+
+	// builds a match from a position in Forsyth-Edwards Notation
+	public static ChessMatch fromFen(CharSequence fen) {
+
+		ChessMatch chessMatch = new ChessMatch(Color.WHITE);
+		chessMatch.loadFen(fen);
+		return chessMatch;
+	}
+
+	// replaces the position of this match with a FEN one, so bulk loads can reuse a single match.
+	// castling rights and double pushes are expressed through the move counts the pieces check
+	public void loadFen(CharSequence fen) {
+
+		clear();
+		int columns = board.getColumns();
+		int length = fen.length();
+		int i = skipSpaces(fen, 0);
+		int row = 0;
+		int column = 0;
+
+		for (; i < length && fen.charAt(i) != ' '; i++) {
 
-			if (source.getColumn() != target.getColumn() && capturedPiece == enPassantVulnerable) {
+			char c = fen.charAt(i);
 
-				ChessPiece paw = (ChessPiece) board.removePiece(target);
+			if (c == '/') {
 
-				Position pawPostion;
+				if (column != columns || ++row == board.getRows()) {
 
-				if (p.getColor() == Color.WHITE) {
+					throw invalidFen(fen);
+				}
+				column = 0;
+			} else if (c >= '1' && c <= '8') {
+
+				column += c - '0';
+			} else {
 
-					pawPostion = new Position(3, target.getColumn());
-				} else {
+				PieceType type = PieceType.fromLetter(c);
+				Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
 
-					pawPostion = new Position(4, target.getColumn());
+				// pawns never stand on the first or last rank
+				if (type == null || column >= columns || Long.bitCount(board.occupancy(color.ordinal())) == 16
+						|| (type == PieceType.PAWN && (row == 0 || row == board.getRows() - 1))) {
 
+					throw invalidFen(fen);
 				}
 
-				board.placePiece(paw, pawPostion);
-				capturedPiece = board.removePiece(pawPostion);
-				capturePieces.add(capturedPiece);
-				piecesOnTheBoard.remove(capturedPiece);
+				ChessPiece piece = sparePiece(type, color);
+				placePiece(piece, row * columns + column++);
+				piecesOnTheBoard.add(piece);
+			}
+		}
+
+		if (row != board.getRows() - 1 || column != columns || piecesOnTheBoard.king(Color.WHITE) == null
+				|| piecesOnTheBoard.king(Color.BLACK) == null) {
+
+			throw invalidFen(fen);
+		}
+
+		i = skipSpaces(fen, i);
 
+		if (i < length && fen.charAt(i) == 'b') {
+
+			currentPlayer = Color.BLACK;
+			turn = 2;
+			hash ^= Zobrist.blackToMove();
+		} else if (i >= length || fen.charAt(i) != 'w') {
+
+			throw invalidFen(fen);
+		}
+
+		i = skipSpaces(fen, i + 1);
+		int rights = 0;
+
+		for (; i < length && fen.charAt(i) != ' '; i++) {
+
+			switch (fen.charAt(i)) {
+			case 'K':
+				rights |= Zobrist.WHITE_KINGSIDE;
+				break;
+			case 'Q':
+				rights |= Zobrist.WHITE_QUEENSIDE;
+				break;
+			case 'k':
+				rights |= Zobrist.BLACK_KINGSIDE;
+				break;
+			case 'q':
+				rights |= Zobrist.BLACK_QUEENSIDE;
+				break;
+			case '-':
+				break;
+			default:
+				throw invalidFen(fen);
 			}
 		}
+		setMoveCounts(rights);
 
-	}
+		i = skipSpaces(fen, i);
 
-	private void validateSourcePosition(Position position) {
+		if (i + 1 < length && fen.charAt(i) >= 'a' && fen.charAt(i) <= 'h') {
 
-		if (!board.thereIsAPiece(position)) {
+			if (fen.charAt(i + 1) < '1' || fen.charAt(i + 1) > '8') {
 
-			throw new ChessException("There is no piece on source position");
+				throw invalidFen(fen);
+			}
+
+			// the pawn that just made its double push stands one row past the target square
+			int target = (8 - (fen.charAt(i + 1) - '0')) * columns + fen.charAt(i) - 'a';
+			int square = (currentPlayer == Color.WHITE) ? target + columns : target - columns;
+
+			if (square >= 0 && square < board.getRows() * columns) {
+
+				ChessPiece pawn = (ChessPiece) board.piece(square);
+
+				if (pawn != null && pawn.getType() == PieceType.PAWN && pawn.getColor() != currentPlayer) {
+
+					setEnPassantVulnerable(pawn);
+				}
+			}
+			i += 2;
+		} else if (i < length && fen.charAt(i) == '-') {
+
+			i++;
 		}
 
-		if (currentPlayer != ((ChessPiece) board.piece(position)).getColor()) {
+		// the move counters are optional, EPD lines carry operations in their place
+		i = skipSpaces(fen, i);
+		int halfmoves = number(fen, i);
 
-			throw new ChessException("The chosen piece is not yours");
+		if (halfmoves >= 0) {
+
+			halfmoveClock = halfmoves;
+			i = skipSpaces(fen, fieldEnd(fen, i));
+			int fullmoves = number(fen, i);
+
+			if (fullmoves > 0) {
+
+				turn = 2 * (fullmoves - 1) + ((currentPlayer == Color.WHITE) ? 1 : 2);
+			}
 		}
 
-		if (!board.piece(position).isThereAnyPossibleMove()) {
+		updateAttacks(board.occupancy());
 
-			throw new ChessException("There is no possible moves for the chosen pie");
+		// the side that just moved cannot have left its king in check
+		if (testCheck(opponent(currentPlayer))) {
+
+			throw invalidFen(fen);
 		}
+
+		updateCastlingRights();
+		check = testCheck(currentPlayer);
+		updateResult();
+		publish();
 	}
 
-	private void nextTurn() {
+	public String toFen() {
 
-		this.turn++;
-		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		return snapshot().toFen();
 	}
 
-	private void placeNewPiece(char column, int row, ChessPiece piece) {
+	// the position as it stands now. the match publishes one after every completed move
+	private PositionSnapshot snapshot() {
 
-		board.placePiece(piece, new ChassPosition(column, row).toPosition());
-		piecesOnTheBoard.add(piece);
-	}
+		byte[] squares = new byte[Board.MAX_SQUARES];
+		long pieces = board.occupancy();
 
-	private Color opponent(Color color) {
+		while (pieces != 0) {
 
-		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
-	}
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
 
-	private ChessPiece king(Color color) {
+			ChessPiece p = (ChessPiece) board.piece(square);
+			squares[square] = PositionSnapshot.code(p.getType(), p.getColor());
+		}
 
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
-		for (Piece p : list) {
+		// the square passed over by the double push, behind the pawn
+		int enPassantSquare = -1;
 
-			if (p instanceof King) {
+		if (enPassantVulnerable != null) {
 
-				return (ChessPiece) p;
-			}
+			enPassantSquare = enPassantVulnerable.getSquare()
+					+ ((enPassantVulnerable.getColor() == Color.WHITE) ? board.getColumns() : -board.getColumns());
 		}
 
-		throw new IllegalStateException("There is no " + color + " king on the board");
+		return new PositionSnapshot(squares, currentPlayer, turn, check, result, hash, castlingRights,
+				enPassantSquare, halfmoveClock);
+	}
+
+	private void publish() {
+
+		published = snapshot();
 	}
 
-	private boolean testCheck(Color color) {
+	// latest published position, safe to read from any thread
+	public PositionSnapshot getSnapshot() {
 
-		Position kingPosition = king(color).getChessPosition().toPosition();
-		List<Piece> opponentPieces = piecesOnTheBoard.stream()
-				.filter(x -> ((ChessPiece) x).getColor() == opponent(color)).collect(Collectors.toList());
+		return published;
+	}
+
+	// takes every piece off and resets the match state. the pieces are kept as spares and the
+	// undo records are kept too, so loading position after position allocates next to nothing
+	private void clear() {
+
+		legalTargetsValid = false;
+
+		long pieces = board.occupancy();
 
-		for (Piece p : opponentPieces) {
+		while (pieces != 0) {
 
-			boolean[][] mat = p.possibleMoves();
-			if (mat[kingPosition.getRow()][kingPosition.getColumn()]) {
+			ChessPiece p = (ChessPiece) board.removePiece(Long.numberOfTrailingZeros(pieces));
+			pieces &= pieces - 1;
 
-				return true;
+			if (sparePieces.count(p.getColor(), p.getType()) < PieceList.CAPACITY) {
+
+				sparePieces.add(p);
 			}
 		}
-		return false;
+
+		// a spare may have been a promotion piece, it must not be reused from both places
+		for (UndoRecord record : undoRecords) {
+
+			record.promotionPiece = null;
+		}
+
+		piecesOnTheBoard.clear();
+		capturePieces.clear();
+		Arrays.fill(attacksFrom, 0L);
+		Arrays.fill(attackMaps, 0L);
+		Arrays.fill(material, 0);
+
+		turn = 1;
+		currentPlayer = Color.WHITE;
+		check = false;
+		checkMate = false;
+		result = GameResult.IN_PROGRESS;
+		promoted = null;
+		enPassantVulnerable = null;
+		enPassantColumn = -1;
+		castlingRights = 0;
+		halfmoveClock = 0;
+		hash = 0L;
+		plies = 0;
 	}
 
-	private boolean testeCheckMate(Color color) {
+	private ChessPiece sparePiece(PieceType type, Color color) {
 
-		if (!testCheck(color)) {
+		int count = sparePieces.count(color, type);
 
-			return false;
+		if (count == 0) {
+
+			return newPiece(type, color);
 		}
 
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
+		ChessPiece piece = sparePieces.get(color, type, count - 1);
+		sparePieces.remove(piece);
+		return piece;
+	}
 
-		for (Piece p : list) {
+	// kings and rooks that lost their castling rights, and pawns off their starting row, count as moved
+	private void setMoveCounts(int rights) {
 
-			boolean[][] mat = p.possibleMoves();
+		long pieces = board.occupancy();
 
-			for (int i = 0; i < board.getRows(); i++) {
+		while (pieces != 0) {
 
-				for (int j = 0; j < board.getColumns(); j++) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
 
-					if (mat[i][j]) {
+			ChessPiece p = (ChessPiece) board.piece(square);
+			boolean white = p.getColor() == Color.WHITE;
+			int homeRow = white ? board.getRows() - 1 : 0;
+			int row = square / board.getColumns();
+			int column = square % board.getColumns();
+			boolean moved = false;
 
-						Position source = ((ChessPiece) p).getChessPosition().toPosition();
-						Position target = new Position(i, j);
-						Piece capturedPiece = makeMove(source, target);
-						boolean testcheck = testCheck(color);
-						undoMove(source, target, capturedPiece);
+			if (p.getType() == PieceType.PAWN) {
 
-						if (!testcheck) {
+				moved = row != (white ? homeRow - 1 : homeRow + 1);
+			} else if (p.getType() == PieceType.KING) {
 
-							return false;
-						}
-					}
-				}
+				int kingRights = white ? Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE
+						: Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE;
+				moved = row != homeRow || column != 4 || (rights & kingRights) == 0;
+			} else if (p.getType() == PieceType.ROOK) {
+
+				int kingside = white ? Zobrist.WHITE_KINGSIDE : Zobrist.BLACK_KINGSIDE;
+				int queenside = white ? Zobrist.WHITE_QUEENSIDE : Zobrist.BLACK_QUEENSIDE;
+				moved = row != homeRow || !((column == 7 && (rights & kingside) != 0)
+						|| (column == 0 && (rights & queenside) != 0));
+			}
+			p.setMoveCount(moved ? 1 : 0);
+		}
+	}
+
+	private static int skipSpaces(CharSequence fen, int i) {
+
+		while (i < fen.length() && fen.charAt(i) == ' ') {
+
+			i++;
+		}
+		return i;
+	}
+
+	private static int fieldEnd(CharSequence fen, int i) {
+
+		while (i < fen.length() && fen.charAt(i) != ' ') {
+
+			i++;
+		}
+		return i;
+	}
+
+	// the whole field as a non-negative number, or -1 when it is missing or not a number
+	private static int number(CharSequence fen, int i) {
+
+		int end = fieldEnd(fen, i);
+
+		if (end == i || end - i > 9) {
+
+			return -1;
+		}
+
+		int value = 0;
+
+		for (; i < end; i++) {
+
+			char c = fen.charAt(i);
+
+			if (c < '0' || c > '9') {
+
+				return -1;
+			}
+			value = value * 10 + c - '0';
+		}
+		return value;
+	}
+
+	private static ChessException invalidFen(CharSequence fen) {
+
+		return new ChessException("Invalid FEN: " + fen);
+	}
+
+	// plays a move chosen by the computer through the same validation as a human move
+	public ChessPiece performChessMove(int move) {
+
+		ChassPosition source = ChassPosition.fromPosition(position(Move.source(move)));
+		ChassPosition target = ChassPosition.fromPosition(position(Move.target(move)));
+
+		// an under-promotion is played as such, so check and mate are only worked out once
+		return performChessMove(source, target, Move.isPromotion(move) ? Move.promotionType(move) : PieceType.QUEEN);
+	}
+
+	// plays a pseudo-legal move for the side to move without validating it, for searches.
+	// squares come straight from the move and everything else is saved in an undo record
+	public void makeMove(int move) {
+
+		if (plies == undoRecords.length) {
+
+			undoRecords = grow(undoRecords, plies * 2);
+		}
+
+		legalTargetsValid = false;
+		UndoRecord record = undoRecords[plies++];
+		record.move = move;
+		record.turn = turn;
+		record.currentPlayer = currentPlayer;
+		record.check = check;
+		record.promoted = promoted;
+		record.enPassantVulnerable = enPassantVulnerable;
+		record.enPassantColumn = enPassantColumn;
+		record.castlingRights = castlingRights;
+		record.halfmoveClock = halfmoveClock;
+		record.hash = hash;
+		record.whiteMaterial = material[Color.WHITE.ordinal()];
+		record.blackMaterial = material[Color.BLACK.ordinal()];
+
+		int source = Move.source(move);
+		int target = Move.target(move);
+		int flags = Move.flags(move);
+		int capturedSquare = target;
+
+		// #specialmove en passant, the captured pawn stands beside the moving one
+		if (flags == Move.EN_PASSANT) {
+
+			capturedSquare = source - source % board.getColumns() + target % board.getColumns();
+		}
+
+		ChessPiece p = (ChessPiece) removePiece(source);
+		p.increaseMoveCount();
+		ChessPiece capturedPiece = (ChessPiece) removePiece(capturedSquare);
+		halfmoveClock = (capturedPiece != null || p.getType() == PieceType.PAWN) ? 0 : halfmoveClock + 1;
+		long changedSquares = (1L << source) | (1L << target) | (1L << capturedSquare);
+
+		if (capturedPiece != null) {
+
+			piecesOnTheBoard.remove(capturedPiece);
+			capturePieces.add(capturedPiece);
+		}
+		record.capturedPiece = capturedPiece;
+		record.capturedSquare = capturedSquare;
+
+		// #specialmove promotion
+		record.promotedPawn = null;
+		if (Move.isPromotion(move)) {
+
+			record.promotedPawn = p;
+			piecesOnTheBoard.remove(p);
+			p = promotionPiece(record, Move.promotionType(move), p.getColor());
+			piecesOnTheBoard.add(p);
+		}
+		placePiece(p, target);
+
+		// #specialmove castling
+		if (flags == Move.KING_CASTLE || flags == Move.QUEEN_CASTLE) {
+
+			int rookSource = (flags == Move.KING_CASTLE) ? source + 3 : source - 4;
+			int rookTarget = (flags == Move.KING_CASTLE) ? source + 1 : source - 1;
+			ChessPiece rook = (ChessPiece) removePiece(rookSource);
+			placePiece(rook, rookTarget);
+			rook.increaseMoveCount();
+			changedSquares |= (1L << rookSource) | (1L << rookTarget);
+		}
+
+		setEnPassantVulnerable(flags == Move.DOUBLE_PAWN_PUSH ? p : null);
+		updateAttacks(changedSquares);
+		updateCastlingRights();
+		nextTurn();
+	}
+
+	// takes back the last move played through makeMove(int)
+	public void undoMove() {
+
+		if (plies == 0) {
+
+			throw new IllegalStateException("There is no move to undo");
+		}
+
+		legalTargetsValid = false;
+		UndoRecord record = undoRecords[--plies];
+		int move = record.move;
+		int source = Move.source(move);
+		int target = Move.target(move);
+		int flags = Move.flags(move);
+		long changedSquares = (1L << source) | (1L << target) | (1L << record.capturedSquare);
+
+		// the hash and material come back from the record, so the board is edited directly
+		ChessPiece p = (ChessPiece) board.removePiece(target);
+
+		if (record.promotedPawn != null) {
+
+			piecesOnTheBoard.remove(p);
+			p = record.promotedPawn;
+			piecesOnTheBoard.add(p);
+		}
+		p.decreaseMoveCount();
+		board.placePiece(p, source);
+
+		if (flags == Move.KING_CASTLE || flags == Move.QUEEN_CASTLE) {
+
+			int rookSource = (flags == Move.KING_CASTLE) ? source + 3 : source - 4;
+			int rookTarget = (flags == Move.KING_CASTLE) ? source + 1 : source - 1;
+			ChessPiece rook = (ChessPiece) board.removePiece(rookTarget);
+			board.placePiece(rook, rookSource);
+			rook.decreaseMoveCount();
+			changedSquares |= (1L << rookSource) | (1L << rookTarget);
+		}
+
+		if (record.capturedPiece != null) {
+
+			board.placePiece(record.capturedPiece, record.capturedSquare);
+			capturePieces.remove(capturePieces.size() - 1);
+			piecesOnTheBoard.add(record.capturedPiece);
+		}
+
+		turn = record.turn;
+		currentPlayer = record.currentPlayer;
+		check = record.check;
+		promoted = record.promoted;
+		enPassantVulnerable = record.enPassantVulnerable;
+		enPassantColumn = record.enPassantColumn;
+		castlingRights = record.castlingRights;
+		halfmoveClock = record.halfmoveClock;
+		hash = record.hash;
+		material[Color.WHITE.ordinal()] = record.whiteMaterial;
+		material[Color.BLACK.ordinal()] = record.blackMaterial;
+		updateAttacks(changedSquares);
+
+		record.capturedPiece = null;
+		record.promotedPawn = null;
+		record.promoted = null;
+		record.enPassantVulnerable = null;
+	}
+
+	// the piece a pawn turns into, reused from the last time this ply promoted since
+	// that move has been taken back
+	private ChessPiece promotionPiece(UndoRecord record, PieceType type, Color color) {
+
+		ChessPiece piece = record.promotionPiece;
+
+		if (piece == null || piece.getType() != type || piece.getColor() != color) {
+
+			piece = newPiece(type, color);
+			record.promotionPiece = piece;
+		}
+		return piece;
+	}
+
+	private static UndoRecord[] grow(UndoRecord[] undoRecords, int capacity) {
+
+		UndoRecord[] records = Arrays.copyOf(undoRecords, capacity);
+
+		for (int i = undoRecords.length; i < capacity; i++) {
+
+			records[i] = new UndoRecord();
+		}
+		return records;
+	}
+
+	// the moves played since the match started or was loaded, oldest first
+	public int[] getMoves() {
+
+		int[] moves = new int[plies];
+
+		for (int i = 0; i < plies; i++) {
+
+			moves[i] = undoRecords[i].move;
+		}
+		return moves;
+	}
+
+	// pseudo-legal moves of the side to move that do not leave its king in check
+	public int generateLegalMoves(MoveList moves) {
+
+		return generateLegal(currentPlayer, moves);
+	}
+
+	public boolean hasLegalMove() {
+
+		return generateLegal(currentPlayer, null) > 0;
+	}
+
+	// no legal move while out of check
+	public boolean isStalemate() {
+
+		return !checkMate && !testCheck(currentPlayer) && !hasLegalMove();
+	}
+
+	// whether the position occurred before. nothing older than the last capture or pawn
+	// move can come back, so only that window of the hash history is looked at
+	public boolean isRepetition() {
+
+		return repetitions() > 0;
+	}
+
+	private int repetitions() {
+
+		int count = 0;
+		int first = Math.max(0, plies - halfmoveClock);
+
+		// a position needs two moves of each side to come back
+		for (int i = plies - 4; i >= first; i -= 2) {
+
+			if (undoRecords[i].hash == hash) {
+
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// neither side has the pieces left to mate: bare kings, a single minor piece,
+	// or bishops that all stand on squares of one color
+	public boolean isInsufficientMaterial() {
+
+		long heavy = 0L;
+		long minors = 0L;
+		long bishops = 0L;
+
+		for (int side = 0; side < Board.SIDES; side++) {
+
+			heavy |= board.bitboard(side, PieceType.PAWN.ordinal()) | board.bitboard(side, PieceType.ROOK.ordinal())
+					| board.bitboard(side, PieceType.QUEEN.ordinal());
+			bishops |= board.bitboard(side, PieceType.BISHOP.ordinal());
+			minors |= board.bitboard(side, PieceType.KNIGHT.ordinal());
+		}
+		minors |= bishops;
+
+		if (heavy != 0) {
+
+			return false;
+		}
+		return Long.bitCount(minors) <= 1 || (minors == bishops
+				&& ((bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0));
+	}
+
+	// makeMove leaves check, the result and the snapshot alone, a caller that replayed moves
+	// through it brings them up to date once at the end, as loadFen does for a position
+	public void settle() {
+
+		check = testCheck(currentPlayer);
+		updateResult();
+		publish();
+	}
+
+	// checkmate first, then the draws, once a move has been completed or a position loaded.
+	// this is the only place checkMate is set, so it always agrees with the result
+	private void updateResult() {
+
+		checkMate = testeCheckMate(currentPlayer);
+
+		if (checkMate) {
+
+			result = GameResult.CHECKMATE;
+		} else if (!hasLegalMove()) {
+
+			result = GameResult.STALEMATE;
+		} else if (halfmoveClock >= 100) {
+
+			result = GameResult.FIFTY_MOVE_RULE;
+		} else if (repetitions() >= 2) {
+
+			result = GameResult.THREEFOLD_REPETITION;
+		} else if (isInsufficientMaterial()) {
+
+			result = GameResult.INSUFFICIENT_MATERIAL;
+		} else {
+
+			result = GameResult.IN_PROGRESS;
+		}
+	}
+
+	// whether a move that comes from outside the generator, from a book or a table, is legal
+	public boolean isLegal(int move) {
+
+		int source = Move.source(move);
+		int target = Move.target(move);
+		ChessPiece p = (ChessPiece) board.piece(source);
+
+		if (p == null || p.getColor() != currentPlayer || (p.moveMask() & (1L << target)) == 0) {
+
+			return false;
+		}
+
+		boolean capture = board.thereIsAPiece(target);
+		int expected = (p.getType() == PieceType.PAWN && isPromotionSquare(target))
+				? Move.promotion(source, target, Move.isPromotion(move) ? Move.promotionType(move) : PieceType.QUEEN, capture)
+				: Move.of(source, target, flags(p.getType(), source, target, capture));
+
+		if (expected != move) {
+
+			return false;
+		}
+
+		makeMove(move);
+		boolean legal = !testCheck(p.getColor());
+		undoMove();
+		return legal;
+	}
+
+	public boolean isInCheck(Color color) {
+
+		return testCheck(color);
+	}
+
+	public long bitboard(Color color, PieceType type) {
+
+		return board.bitboard(color.ordinal(), type.ordinal());
+	}
+
+	public PieceType pieceTypeAt(int square) {
+
+		ChessPiece p = (ChessPiece) board.piece(square);
+		return (p == null) ? null : p.getType();
+	}
+
+	public ChessPiece replacePromotedPiece(String type) {
+
+		if (promoted == null) {
+
+			throw new IllegalStateException("There is no piece to be promoted");
+		}
+
+		if (!type.equals("B") && !type.equals("N") && !type.equals("R") && !type.equals("Q")) {
 
+			throw new InvalidParameterException("Invalid type for promotion");
+		}
+
+		MoveEvents.Promotion event = new MoveEvents.Promotion();
+		event.begin();
+		int square = promoted.getSquare();
+		ChessPiece newpPiece = newPiece(type, promoted.getColor());
+		replacePiece(square, newpPiece);
+		promoted = newpPiece;
+
+		// the move that promoted records the piece actually chosen
+		if (plies > 0 && Move.isPromotion(undoRecords[plies - 1].move) && Move.target(undoRecords[plies - 1].move) == square) {
+
+			UndoRecord record = undoRecords[plies - 1];
+			record.move = Move.promotion(Move.source(record.move), square, newpPiece.getType(), Move.isCapture(record.move));
+		}
+		completeMove();
+
+		event.piece = type;
+		event.commit();
+		
+		return newpPiece;
+	}
+
+	private ChessPiece newPiece(String type, Color color) {
+
+		if (type.equals("B"))
+			return newPiece(PieceType.BISHOP, color);
+		if (type.equals("N"))
+			return newPiece(PieceType.KNIGHT, color);
+		if (type.equals("R"))
+			return newPiece(PieceType.ROOK, color);
+		return newPiece(PieceType.QUEEN, color);
+	}
+
+	ChessPiece newPiece(PieceType type, Color color) {
+
+		switch (type) {
+		case PAWN:
+			return new Pawn(board, color, this);
+		case KNIGHT:
+			return new Knight(board, color);
+		case BISHOP:
+			return new Bishop(board, color);
+		case ROOK:
+			return new Rook(board, color);
+		case QUEEN:
+			return new Queen(board, color);
+		default:
+			return new King(board, color, this);
+		}
+	}
+
+	// swaps the piece standing on the square, returning the one taken off
+	ChessPiece replacePiece(int square, ChessPiece piece) {
+
+		legalTargetsValid = false;
+		ChessPiece p = (ChessPiece) removePiece(square);
+		piecesOnTheBoard.remove(p);
+		placePiece(piece, square);
+		piecesOnTheBoard.add(piece);
+		updateAttacks(1L << square);
+		updateCastlingRights();
+
+		return p;
+	}
+
+	private void validateTargetPosition(Position source, Position target) {
+
+		if ((legalTargets(board.square(source)) & (1L << board.square(target))) == 0) {
+
+			if (board.piece(source).possibleMove(target)) {
+
+				throw new ChessException("you can't put yourself in check");
+			}
+			throw new ChessException("The chosen piece can't move to target position");
+		}
+	}
+
+	Board getBoard() {
+
+		return board;
+	}
+
+	int getEnPassantColumn() {
+
+		return enPassantColumn;
+	}
+
+	void setEnPassantVulnerable(ChessPiece enPassantVulnerable) {
+
+		if (enPassantColumn >= 0) {
+
+			hash ^= Zobrist.enPassant(enPassantColumn);
+		}
+
+		this.enPassantVulnerable = enPassantVulnerable;
+		this.enPassantColumn = (enPassantVulnerable != null) ? enPassantVulnerable.getSquare() % board.getColumns() : -1;
+
+		if (enPassantColumn >= 0) {
+
+			hash ^= Zobrist.enPassant(enPassantColumn);
+		}
+	}
+
+	// the Zobrist key and the material follow every piece put on or taken off the board
+	private void placePiece(ChessPiece piece, int square) {
+
+		board.placePiece(piece, square);
+		hash ^= Zobrist.piece(piece.getSide(), piece.getKind(), square);
+		material[piece.getSide()] += piece.getType().getValue();
+	}
+
+	private Piece removePiece(int square) {
+
+		ChessPiece piece = (ChessPiece) board.removePiece(square);
+
+		if (piece != null) {
+
+			hash ^= Zobrist.piece(piece.getSide(), piece.getKind(), square);
+			material[piece.getSide()] -= piece.getType().getValue();
+		}
+		return piece;
+	}
+
+	// castling rights follow from the king and rook move counts, the same test King uses
+	private void updateCastlingRights() {
+
+		int rights = 0;
+
+		if (castlingRook(Color.WHITE, 3)) {
+
+			rights |= Zobrist.WHITE_KINGSIDE;
+		}
+		if (castlingRook(Color.WHITE, -4)) {
+
+			rights |= Zobrist.WHITE_QUEENSIDE;
+		}
+		if (castlingRook(Color.BLACK, 3)) {
+
+			rights |= Zobrist.BLACK_KINGSIDE;
+		}
+		if (castlingRook(Color.BLACK, -4)) {
+
+			rights |= Zobrist.BLACK_QUEENSIDE;
+		}
+
+		hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+		castlingRights = rights;
+	}
+
+	private boolean castlingRook(Color color, int offset) {
+
+		ChessPiece king = piecesOnTheBoard.king(color);
+
+		if (king == null || king.getMoveCount() != 0) {
+
+			return false;
+		}
+
+		int row = king.getSquare() / board.getColumns();
+		int column = king.getSquare() % board.getColumns() + offset;
+
+		if (!board.positionExists(row, column)) {
+
+			return false;
+		}
+
+		ChessPiece rook = (ChessPiece) board.piece(row, column);
+		return rook != null && rook.getType() == PieceType.ROOK && rook.getColor() == color && rook.getMoveCount() == 0;
+	}
+
+	private void validateSourcePosition(Position position) {
+
+		if (!board.thereIsAPiece(position)) {
+
+			throw new ChessException("There is no piece on source position");
+		}
+
+		if (currentPlayer != ((ChessPiece) board.piece(position)).getColor()) {
+
+			throw new ChessException("The chosen piece is not yours");
+		}
+
+		if (legalTargets(board.square(position)) == 0) {
+
+			throw new ChessException("There is no possible moves for the chosen pie");
+		}
+	}
+
+	private void nextTurn() {
+
+		this.turn++;
+		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		hash ^= Zobrist.blackToMove();
+	}
+
+	private Position position(int square) {
+
+		return new Position(square / board.getColumns(), square % board.getColumns());
+	}
+
+	void placeNewPiece(char column, int row, ChessPiece piece) {
+
+		placeNewPiece(new ChassPosition(column, row).toPosition(), piece);
+	}
+
+	private void placeNewPiece(Position position, ChessPiece piece) {
+
+		int square = board.square(position);
+		placePiece(piece, square);
+		piecesOnTheBoard.add(piece);
+		updateAttacks(1L << square);
+		updateCastlingRights();
+	}
+
+	private Color opponent(Color color) {
+
+		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
+
+	private ChessPiece king(Color color) {
+
+		ChessPiece king = piecesOnTheBoard.king(color);
+
+		if (king == null) {
+
+			throw new IllegalStateException("There is no " + color + " king on the board");
+		}
+
+		return king;
+	}
+
+	boolean testCheck(Color color) {
+
+		return isSquareAttacked(king(color).getSquare(), opponent(color));
+	}
+
+	// refreshes the attacks of the pieces on the changed squares and of the sliders
+	// whose rays cross them, then rebuilds the color maps from the cached sets
+	private void updateAttacks(long changedSquares) {
+
+		long occupancy = board.occupancy();
+		long sliders = 0L;
+
+		for (int side = 0; side < Board.SIDES; side++) {
+
+			sliders |= board.bitboard(side, PieceType.ROOK.ordinal()) | board.bitboard(side, PieceType.BISHOP.ordinal())
+					| board.bitboard(side, PieceType.QUEEN.ordinal());
+		}
+
+		long vacated = changedSquares & ~occupancy;
+
+		while (vacated != 0) {
+
+			attacksFrom[Long.numberOfTrailingZeros(vacated)] = 0L;
+			vacated &= vacated - 1;
+		}
+
+		long pieces = occupancy;
+
+		while (pieces != 0) {
+
+			int square = Long.numberOfTrailingZeros(pieces);
+			long bit = pieces & -pieces;
+			pieces &= pieces - 1;
+
+			if ((changedSquares & bit) != 0 || ((sliders & bit) != 0 && (attacksFrom[square] & changedSquares) != 0)) {
+
+				attacksFrom[square] = ((ChessPiece) board.piece(square)).attacks();
 			}
+		}
+
+		for (int side = 0; side < Board.SIDES; side++) {
 
+			long map = 0L;
+			long sidePieces = board.occupancy(side);
+
+			while (sidePieces != 0) {
+
+				map |= attacksFrom[Long.numberOfTrailingZeros(sidePieces)];
+				sidePieces &= sidePieces - 1;
+			}
+			attackMaps[side] = map;
 		}
-		return true;
+	}
+
+	private boolean testeCheckMate(Color color) {
+
+		if (!testCheck(color)) {
+
+			return false;
+		}
+
+		// a mated rook ending is a loss in zero moves, no need to try the replies
+		if (tablebase != null && color == currentPlayer) {
+
+			int result = tablebase.probe(this);
+
+			if (result != Tablebase.NOT_FOUND) {
+
+				return Tablebase.wdl(result) == Tablebase.LOSS && Tablebase.dtm(result) == 0;
+			}
+		}
+
+		return generateLegal(color, null) == 0;
 	}
 
 	private void initialSetup() {
@@ -8,6 +8,7 @@ public abstract class ChessPiece extends Piece {
 
 	private Color color;
 	private int moveCount;
+	private int listIndex;
 
 	public ChessPiece(Board board, Color color) {
 
@@ -20,6 +21,20 @@ public abstract class ChessPiece extends Piece {
 		return this.color;
 	}
 
+	public abstract PieceType getType();
+
+	@Override
+	public final int getSide() {
+
+		return color.ordinal();
+	}
+
+	@Override
+	public final int getKind() {
+
+		return getType().ordinal();
+	}
+
 	public int getMoveCount() {
 		
 		return this.moveCount;
@@ -34,14 +49,89 @@ public abstract class ChessPiece extends Piece {
 		moveCount--;
 	}
 
+	void setMoveCount(int moveCount) {
+
+		this.moveCount = moveCount;
+	}
+
+	int getListIndex() {
+
+		return listIndex;
+	}
+
+	void setListIndex(int listIndex) {
+
+		this.listIndex = listIndex;
+	}
+
+	public int getSquare() {
+
+		return getBoard().square(position);
+	}
+
 	public ChassPosition getChessPosition() {
 
 		return ChassPosition.fromPosition(position);
 	}
 
+	// squares this piece attacks, whoever stands on them
+	public abstract long attacks();
+
+	// target squares of the pseudo-legal moves, one bit per square
+	public long moveMask() {
+
+		return attacks() & ~ownPieces();
+	}
+
+	@Override
+	public boolean[][] possibleMoves() {
+
+		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+		long mask = moveMask();
+
+		while (mask != 0) {
+
+			int square = Long.numberOfTrailingZeros(mask);
+			mat[square / getBoard().getColumns()][square % getBoard().getColumns()] = true;
+			mask &= mask - 1;
+		}
+		return mat;
+	}
+
+	@Override
+	public boolean possibleMove(Position position) {
+
+		return (moveMask() & (1L << getBoard().square(position))) != 0;
+	}
+
+	@Override
+	public boolean isThereAnyPossibleMove() {
+
+		return moveMask() != 0;
+	}
+
 	protected boolean isThereOpponentPiece(Position position) {
 
 		ChessPiece p = (ChessPiece) getBoard().piece(position);
 		return p != null && p.getColor() != this.color;
 	}
+
+	protected long ownPieces() {
+
+		return getBoard().occupancy(getSide());
+	}
+
+	protected long opponentPieces() {
+
+		return getBoard().occupancy(1 - getSide());
+	}
+
+	// one square away, or nothing when it falls off the board
+	protected long step(int rowStep, int columnStep) {
+
+		int row = position.getRow() + rowStep;
+		int column = position.getColumn() + columnStep;
+
+		return getBoard().positionExists(row, column) ? 1L << getBoard().square(row, column) : 0L;
+	}
 }
@@ -0,0 +1,113 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+// reads one FEN per line and loads it into a match the caller reuses, so millions of
+// positions go through one byte buffer and one line buffer
+public class FenReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final InputStream in;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private int limit;
+
+	private final StringBuilder line = new StringBuilder(128);
+	private long lineNumber;
+
+	public FenReader(InputStream in) {
+
+		this.in = in;
+	}
+
+	// loads the next position, skipping blank lines and lines starting with '#'.
+	// returns false at the end of the stream
+	public boolean next(ChessMatch chessMatch) throws IOException {
+
+		while (readLine()) {
+
+			if (line.length() == 0 || line.charAt(0) == '#') {
+
+				continue;
+			}
+
+			try {
+
+				chessMatch.loadFen(line);
+			} catch (ChessException e) {
+
+				throw new ChessException("Line " + lineNumber + ": " + e.getMessage());
+			}
+			return true;
+		}
+		return false;
+	}
+
+	public long getLineNumber() {
+
+		return lineNumber;
+	}
+
+	public CharSequence getLine() {
+
+		return line;
+	}
+
+	private boolean readLine() throws IOException {
+
+		line.setLength(0);
+		boolean read = false;
+
+		while (true) {
+
+			if (position == limit) {
+
+				limit = in.read(buffer, 0, buffer.length);
+				position = 0;
+
+				if (limit <= 0) {
+
+					limit = 0;
+
+					if (read) {
+
+						lineNumber++;
+						trim();
+					}
+					return read;
+				}
+			}
+
+			byte b = buffer[position++];
+			read = true;
+
+			if (b == '\n') {
+
+				lineNumber++;
+				trim();
+				return true;
+			}
+			line.append((char) (b & 0xFF));
+		}
+	}
+
+	private void trim() {
+
+		int length = line.length();
+
+		while (length > 0 && line.charAt(length - 1) <= ' ') {
+
+			length--;
+		}
+		line.setLength(length);
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		in.close();
+	}
+}
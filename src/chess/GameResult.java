@@ -0,0 +1,17 @@
+package chess;
+
+// how a match stands. every result but IN_PROGRESS and CHECKMATE is a draw
+public enum GameResult {
+
+	IN_PROGRESS,
+	CHECKMATE,
+	STALEMATE,
+	THREEFOLD_REPETITION,
+	FIFTY_MOVE_RULE,
+	INSUFFICIENT_MATERIAL;
+
+	public boolean isDraw() {
+
+		return this != IN_PROGRESS && this != CHECKMATE;
+	}
+}
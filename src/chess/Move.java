@@ -0,0 +1,84 @@
+package chess;
+
+// moves are packed in 16 bits: source square, target square and a 4 bit flag
+public final class Move {
+
+	public static final int QUIET = 0;
+	public static final int DOUBLE_PAWN_PUSH = 1;
+	public static final int KING_CASTLE = 2;
+	public static final int QUEEN_CASTLE = 3;
+	public static final int CAPTURE = 4;
+	public static final int EN_PASSANT = 5;
+	public static final int PROMOTION = 8;
+
+	public static final int NONE = 0;
+
+	private static final PieceType[] PROMOTION_TYPES = { PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+			PieceType.QUEEN };
+
+	private Move() {
+	}
+
+	public static int of(int source, int target, int flags) {
+
+		return source | (target << 6) | (flags << 12);
+	}
+
+	public static int promotion(int source, int target, PieceType type, boolean capture) {
+
+		int flags = PROMOTION | (type.ordinal() - PieceType.KNIGHT.ordinal());
+		return of(source, target, capture ? flags | CAPTURE : flags);
+	}
+
+	public static int source(int move) {
+
+		return move & 0x3F;
+	}
+
+	public static int target(int move) {
+
+		return (move >>> 6) & 0x3F;
+	}
+
+	public static int flags(int move) {
+
+		return (move >>> 12) & 0xF;
+	}
+
+	public static boolean isCapture(int move) {
+
+		return (flags(move) & CAPTURE) != 0;
+	}
+
+	public static boolean isPromotion(int move) {
+
+		return (flags(move) & PROMOTION) != 0;
+	}
+
+	public static boolean isCastling(int move) {
+
+		int flags = flags(move);
+		return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+	}
+
+	public static PieceType promotionType(int move) {
+
+		return isPromotion(move) ? PROMOTION_TYPES[flags(move) & 3] : null;
+	}
+
+	public static String squareName(int square) {
+
+		return "" + (char) ('a' + square % 8) + (8 - square / 8);
+	}
+
+	public static String toString(int move) {
+
+		String s = squareName(source(move)) + squareName(target(move));
+
+		if (isPromotion(move)) {
+
+			s += "nbrq".charAt(flags(move) & 3);
+		}
+		return s;
+	}
+}
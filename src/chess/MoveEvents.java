@@ -0,0 +1,108 @@
+package chess;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder events for the stages of performChessMove, the reason the project needs
+// Java 11 (jdk.jfr is not part of the Java 8 API). all of them are off unless a
+// recording turns them on, e.g. with -XX:StartFlightRecording and a settings file enabling
+// chess.*; when off, begin and commit do nothing and the event objects do not escape.
+// only the session path is covered, the search's makeMove and undoMove stay untouched
+final class MoveEvents {
+
+	private MoveEvents() {
+	}
+
+	@Name("chess.PerformMove")
+	@Label("Perform Move")
+	@Description("A whole performChessMove call")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class PerformMove extends Event {
+
+		@Label("Move")
+		String move;
+
+		@Label("Pseudo-Moves Examined")
+		int pseudoMoves;
+	}
+
+	@Name("chess.Validation")
+	@Label("Validation")
+	@Description("Source and target checks against the legal moves of the side to move")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class Validation extends Event {
+
+		@Label("Pseudo-Moves Examined")
+		int pseudoMoves;
+	}
+
+	@Name("chess.LegalMoves")
+	@Label("Legal Moves")
+	@Description("Pseudo-legal targets the legal move generator looked at, once per ply")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class LegalMoves extends Event {
+
+		@Label("Pseudo-Moves Examined")
+		int pseudoMoves;
+
+		@Label("Legal Moves")
+		int legalMoves;
+	}
+
+	@Name("chess.MakeMove")
+	@Label("Make Move")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class MakeMove extends Event {
+	}
+
+	@Name("chess.TestCheck")
+	@Label("Test Check")
+	@Description("Whether the side to move is in check after the move")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class TestCheck extends Event {
+
+		@Label("Check")
+		boolean check;
+	}
+
+	@Name("chess.TestCheckMate")
+	@Label("Test Checkmate")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class TestCheckMate extends Event {
+
+		@Label("Pseudo-Moves Examined")
+		int pseudoMoves;
+
+		@Label("Checkmate")
+		boolean checkMate;
+	}
+
+	@Name("chess.Promotion")
+	@Label("Promotion")
+	@Description("Replacing the promoted pawn's queen by the chosen piece")
+	@Category({ "Chess", "Moves" })
+	@Enabled(false)
+	@StackTrace(false)
+	static final class Promotion extends Event {
+
+		@Label("Piece")
+		String piece;
+	}
+}
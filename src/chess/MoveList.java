@@ -0,0 +1,67 @@
+package chess;
+
+// caller owned buffer of packed moves, reused between generations
+public class MoveList {
+
+	public static final int MAX_MOVES = 256;
+
+	private final int[] moves;
+	private int size;
+
+	public MoveList() {
+
+		this(MAX_MOVES);
+	}
+
+	public MoveList(int capacity) {
+
+		this.moves = new int[capacity];
+	}
+
+	public void add(int move) {
+
+		moves[size++] = move;
+	}
+
+	public int get(int index) {
+
+		return moves[index];
+	}
+
+	public void set(int index, int move) {
+
+		moves[index] = move;
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	public void truncate(int size) {
+
+		this.size = size;
+	}
+
+	public void clear() {
+
+		size = 0;
+	}
+
+	public boolean contains(int move) {
+
+		for (int i = 0; i < size; i++) {
+
+			if (moves[i] == move) {
+
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,86 @@
+package chess;
+
+// counts the leaf nodes of the legal move tree, the usual check for a move generator
+public class Perft {
+
+	private static final int MAX_DEPTH = 64;
+
+	private final ChessMatch chessMatch;
+	private final MoveList[] moves = new MoveList[MAX_DEPTH];
+
+	public Perft(ChessMatch chessMatch) {
+
+		this.chessMatch = chessMatch;
+
+		for (int i = 0; i < MAX_DEPTH; i++) {
+
+			moves[i] = new MoveList();
+		}
+	}
+
+	public long perft(int depth) {
+
+		return perft(chessMatch.getCurrentPlayer(), depth, 0);
+	}
+
+	// node count below each root move, printed as "e2e4: 20"
+	public String divide(int depth) {
+
+		StringBuilder sb = new StringBuilder();
+		Color side = chessMatch.getCurrentPlayer();
+		MoveList list = moves[0];
+		long total = 0;
+		chessMatch.generateMoves(side, list);
+
+		for (int i = 0; i < list.size(); i++) {
+
+			int move = list.get(i);
+			chessMatch.makeMove(move);
+
+			if (!chessMatch.testCheck(side)) {
+
+				long nodes = perft(opponent(side), depth - 1, 1);
+				sb.append(Move.toString(move)).append(": ").append(nodes).append(System.lineSeparator());
+				total += nodes;
+			}
+			chessMatch.undoMove();
+		}
+		sb.append("Nodes: ").append(total);
+		return sb.toString();
+	}
+
+	private long perft(Color side, int depth, int ply) {
+
+		if (depth == 0) {
+
+			return 1;
+		}
+
+		MoveList list = moves[ply];
+		chessMatch.generateMoves(side, list);
+		long nodes = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+
+			chessMatch.makeMove(list.get(i));
+
+			if (!chessMatch.testCheck(side)) {
+
+				nodes += perft(opponent(side), depth - 1, ply + 1);
+			}
+			chessMatch.undoMove();
+		}
+		return nodes;
+	}
+
+	private static Color opponent(Color color) {
+
+		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
+
+	// the regular starting position, for checking counts against published tables
+	public static ChessMatch standardPosition() {
+
+		return ChessMatch.fromFen(ChessMatch.STANDARD_FEN);
+	}
+}
@@ -0,0 +1,90 @@
+package chess;
+
+import java.util.Arrays;
+
+import boradgame.Board;
+
+// pieces on the board indexed by color and type, with constant time add and remove
+public class PieceList {
+
+	static final int CAPACITY = 16;
+
+	private final ChessPiece[][][] pieces = new ChessPiece[Board.SIDES][PieceType.values().length][CAPACITY];
+	private final int[][] counts = new int[Board.SIDES][PieceType.values().length];
+	private final ChessPiece[] kings = new ChessPiece[Board.SIDES];
+	private int size;
+
+	public void add(ChessPiece piece) {
+
+		int side = piece.getSide();
+		int kind = piece.getKind();
+		int index = counts[side][kind]++;
+
+		pieces[side][kind][index] = piece;
+		piece.setListIndex(index);
+		size++;
+
+		if (piece.getType() == PieceType.KING) {
+
+			kings[side] = piece;
+		}
+	}
+
+	public void remove(ChessPiece piece) {
+
+		int side = piece.getSide();
+		int kind = piece.getKind();
+		int index = piece.getListIndex();
+
+		if (pieces[side][kind][index] != piece) {
+
+			throw new IllegalStateException("Piece " + piece + " is not on the list");
+		}
+
+		int last = --counts[side][kind];
+
+		pieces[side][kind][index] = pieces[side][kind][last];
+		pieces[side][kind][index].setListIndex(index);
+		pieces[side][kind][last] = null;
+		size--;
+
+		if (kings[side] == piece) {
+
+			kings[side] = null;
+		}
+	}
+
+	public void clear() {
+
+		for (int side = 0; side < Board.SIDES; side++) {
+
+			for (int kind = 0; kind < counts[side].length; kind++) {
+
+				Arrays.fill(pieces[side][kind], 0, counts[side][kind], null);
+				counts[side][kind] = 0;
+			}
+			kings[side] = null;
+		}
+		size = 0;
+	}
+
+	public int count(Color color, PieceType type) {
+
+		return counts[color.ordinal()][type.ordinal()];
+	}
+
+	public ChessPiece get(Color color, PieceType type, int index) {
+
+		return pieces[color.ordinal()][type.ordinal()][index];
+	}
+
+	public ChessPiece king(Color color) {
+
+		return kings[color.ordinal()];
+	}
+
+	public int size() {
+
+		return size;
+	}
+}
@@ -0,0 +1,54 @@
+package chess;
+
+public enum PieceType {
+
+	PAWN(100, 'P'),
+	KNIGHT(320, 'N'),
+	BISHOP(330, 'B'),
+	ROOK(500, 'R'),
+	QUEEN(900, 'Q'),
+	KING(0, 'K');
+
+	private final int value;
+	private final char letter;
+
+	private PieceType(int value, char letter) {
+
+		this.value = value;
+		this.letter = letter;
+	}
+
+	// material value in centipawns
+	public int getValue() {
+
+		return value;
+	}
+
+	// upper case letter used by FEN and algebraic notation
+	public char getLetter() {
+
+		return letter;
+	}
+
+	// the type of a FEN letter in either case, or null when there is none
+	public static PieceType fromLetter(char letter) {
+
+		switch (Character.toUpperCase(letter)) {
+		case 'P':
+			return PAWN;
+		case 'N':
+			return KNIGHT;
+		case 'B':
+			return BISHOP;
+		case 'R':
+			return ROOK;
+		case 'Q':
+			return QUEEN;
+		case 'K':
+			return KING;
+		default:
+			return null;
+		}
+	}
+
+}
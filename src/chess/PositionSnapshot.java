@@ -0,0 +1,182 @@
+package chess;
+
+// the position as it stood after a completed move. nothing in it changes, so any thread can
+// read it while the match goes on; ChessMatch publishes a new one instead of editing this
+public final class PositionSnapshot {
+
+	// values() copies its array on every call
+	private static final PieceType[] TYPES = PieceType.values();
+	private static final Color[] COLORS = Color.values();
+
+	private final byte[] squares;
+	private final Color currentPlayer;
+	private final int turn;
+	private final boolean check;
+	private final GameResult result;
+	private final long hash;
+	private final int castlingRights;
+	private final int enPassantSquare;
+	private final int halfmoveClock;
+
+	// squares hold 0 when empty, otherwise type ordinal * 2 + color ordinal + 1
+	PositionSnapshot(byte[] squares, Color currentPlayer, int turn, boolean check, GameResult result, long hash,
+			int castlingRights, int enPassantSquare, int halfmoveClock) {
+
+		this.squares = squares;
+		this.currentPlayer = currentPlayer;
+		this.turn = turn;
+		this.check = check;
+		this.result = result;
+		this.hash = hash;
+		this.castlingRights = castlingRights;
+		this.enPassantSquare = enPassantSquare;
+		this.halfmoveClock = halfmoveClock;
+	}
+
+	static byte code(PieceType type, Color color) {
+
+		return (byte) (type.ordinal() * 2 + color.ordinal() + 1);
+	}
+
+	public PieceType pieceTypeAt(int square) {
+
+		int code = squares[square];
+		return (code == 0) ? null : TYPES[(code - 1) >> 1];
+	}
+
+	public Color colorAt(int square) {
+
+		int code = squares[square];
+		return (code == 0) ? null : COLORS[(code - 1) & 1];
+	}
+
+	public Color getCurrentPlayer() {
+
+		return this.currentPlayer;
+	}
+
+	public int getTurn() {
+
+		return this.turn;
+	}
+
+	public boolean getCheck() {
+
+		return this.check;
+	}
+
+	public boolean getCheckMate() {
+
+		return this.result == GameResult.CHECKMATE;
+	}
+
+	// the mated side is the one to move, so the winner is the other
+	public Color getWinner() {
+
+		if (result != GameResult.CHECKMATE) {
+
+			return null;
+		}
+		return (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
+
+	public GameResult getResult() {
+
+		return this.result;
+	}
+
+	public long getHash() {
+
+		return this.hash;
+	}
+
+	public int getCastlingRights() {
+
+		return this.castlingRights;
+	}
+
+	// square a pawn can be taken on en passant, -1 when there is none
+	public int getEnPassantSquare() {
+
+		return this.enPassantSquare;
+	}
+
+	public int getHalfmoveClock() {
+
+		return this.halfmoveClock;
+	}
+
+	public String toFen() {
+
+		StringBuilder sb = new StringBuilder(90);
+
+		for (int row = 0; row < 8; row++) {
+
+			int empty = 0;
+
+			for (int column = 0; column < 8; column++) {
+
+				PieceType type = pieceTypeAt(row * 8 + column);
+
+				if (type == null) {
+
+					empty++;
+					continue;
+				}
+
+				if (empty > 0) {
+
+					sb.append(empty);
+					empty = 0;
+				}
+
+				char letter = type.getLetter();
+				sb.append((colorAt(row * 8 + column) == Color.WHITE) ? letter : Character.toLowerCase(letter));
+			}
+
+			if (empty > 0) {
+
+				sb.append(empty);
+			}
+
+			if (row < 7) {
+
+				sb.append('/');
+			}
+		}
+
+		sb.append((currentPlayer == Color.WHITE) ? " w " : " b ");
+
+		if (castlingRights == 0) {
+
+			sb.append('-');
+		}
+		if ((castlingRights & Zobrist.WHITE_KINGSIDE) != 0) {
+
+			sb.append('K');
+		}
+		if ((castlingRights & Zobrist.WHITE_QUEENSIDE) != 0) {
+
+			sb.append('Q');
+		}
+		if ((castlingRights & Zobrist.BLACK_KINGSIDE) != 0) {
+
+			sb.append('k');
+		}
+		if ((castlingRights & Zobrist.BLACK_QUEENSIDE) != 0) {
+
+			sb.append('q');
+		}
+
+		if (enPassantSquare >= 0) {
+
+			sb.append(' ').append((char) ('a' + enPassantSquare % 8)).append(8 - enPassantSquare / 8);
+		} else {
+
+			sb.append(" -");
+		}
+
+		sb.append(' ').append(halfmoveClock).append(' ').append((turn + 1) / 2);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,25 @@
+package chess;
+
+// everything makeMove changes that undoMove cannot read back from the move itself.
+// records are allocated once and reused, so playing and taking back moves creates no garbage
+class UndoRecord {
+
+	int move;
+	ChessPiece capturedPiece;
+	int capturedSquare;
+	ChessPiece promotedPawn;
+	ChessPiece promotionPiece;
+
+	int turn;
+	Color currentPlayer;
+	boolean check;
+	ChessPiece promoted;
+	ChessPiece enPassantVulnerable;
+	int enPassantColumn;
+	int castlingRights;
+	int halfmoveClock;
+	long hash;
+	int whiteMaterial;
+	int blackMaterial;
+
+}
@@ -0,0 +1,85 @@
+package chess;
+
+import boradgame.Board;
+
+// random keys xored together into a position hash; fixed seed so hashes are stable between runs
+public final class Zobrist {
+
+	public static final int WHITE_KINGSIDE = 1;
+	public static final int WHITE_QUEENSIDE = 2;
+	public static final int BLACK_KINGSIDE = 4;
+	public static final int BLACK_QUEENSIDE = 8;
+
+	private static final long[][][] PIECES = new long[Board.SIDES][PieceType.values().length][Board.MAX_SQUARES];
+	private static final long[] CASTLING = new long[16];
+	private static final long[] EN_PASSANT = new long[8];
+	private static final long BLACK_TO_MOVE;
+
+	static {
+
+		long seed = 0x9E3779B97F4A7C15L;
+
+		for (int side = 0; side < Board.SIDES; side++) {
+
+			for (int kind = 0; kind < PieceType.values().length; kind++) {
+
+				for (int square = 0; square < Board.MAX_SQUARES; square++) {
+
+					seed = next(seed);
+					PIECES[side][kind][square] = mix(seed);
+				}
+			}
+		}
+
+		for (int i = 0; i < CASTLING.length; i++) {
+
+			seed = next(seed);
+			CASTLING[i] = (i == 0) ? 0L : mix(seed);
+		}
+
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+
+			seed = next(seed);
+			EN_PASSANT[i] = mix(seed);
+		}
+
+		seed = next(seed);
+		BLACK_TO_MOVE = mix(seed);
+	}
+
+	private Zobrist() {
+	}
+
+	public static long piece(int side, int kind, int square) {
+
+		return PIECES[side][kind][square];
+	}
+
+	public static long castling(int rights) {
+
+		return CASTLING[rights];
+	}
+
+	public static long enPassant(int column) {
+
+		return EN_PASSANT[column];
+	}
+
+	public static long blackToMove() {
+
+		return BLACK_TO_MOVE;
+	}
+
+	private static long next(long seed) {
+
+		return seed + 0x9E3779B97F4A7C15L;
+	}
+
+	// splitmix64 finalizer
+	private static long mix(long z) {
+
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,196 @@
+package chess.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.ChessMatch;
+
+// read side of a game archive, mapped into memory so reading moves touches no heap.
+//
+// layout, big endian:
+//   header   int magic, short version, short reserved
+//   games    byte result, byte start, short move count, short fen length, fen bytes, short moves
+//   index    long offset of each game
+//   trailer  long index offset, int game count, int magic
+public class GameArchive implements Closeable {
+
+	static final int MAGIC = 0x43484741;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 8;
+	static final int TRAILER_SIZE = 16;
+	static final int GAME_HEADER_SIZE = 6;
+
+	public static final int RESULT_UNKNOWN = 0;
+	public static final int RESULT_WHITE_WINS = 1;
+	public static final int RESULT_BLACK_WINS = 2;
+	public static final int RESULT_DRAW = 3;
+
+	// where a game starts, the FEN is only stored for the other positions
+	static final int START_INITIAL_SETUP = 0;
+	static final int START_STANDARD = 1;
+	static final int START_FEN = 2;
+
+	static final String INITIAL_SETUP_FEN = new ChessMatch().toFen();
+	static final String STANDARD_FEN = ChessMatch.STANDARD_FEN;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final long indexOffset;
+	private final int size;
+
+	private GameArchive(FileChannel channel) throws IOException {
+
+		this.channel = channel;
+
+		if (channel.size() > Integer.MAX_VALUE) {
+
+			throw new IOException("Archives over 2 GB must be split");
+		}
+		if (channel.size() < HEADER_SIZE + TRAILER_SIZE) {
+
+			throw new IOException("Not a game archive");
+		}
+
+		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		int trailer = buffer.limit() - TRAILER_SIZE;
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(trailer + 12) != MAGIC) {
+
+			throw new IOException("Not a game archive");
+		}
+		if (buffer.getShort(4) != VERSION) {
+
+			throw new IOException("Unsupported archive version " + buffer.getShort(4));
+		}
+
+		this.indexOffset = buffer.getLong(trailer);
+		this.size = buffer.getInt(trailer + 8);
+	}
+
+	public static GameArchive open(Path path) throws IOException {
+
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+
+			return new GameArchive(channel);
+		} catch (IOException e) {
+
+			channel.close();
+			throw e;
+		}
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	public int result(int game) {
+
+		return buffer.get(offset(game));
+	}
+
+	public int moveCount(int game) {
+
+		return buffer.getShort(offset(game) + 2) & 0xFFFF;
+	}
+
+	// the packed move played at a ply of the game, as in chess.Move
+	public int move(int game, int ply) {
+
+		int offset = offset(game);
+
+		if (ply < 0 || ply >= (buffer.getShort(offset + 2) & 0xFFFF)) {
+
+			throw new IndexOutOfBoundsException("Game " + game + " has no move " + ply);
+		}
+
+		int fenLength = buffer.getShort(offset + 4) & 0xFFFF;
+		return buffer.getShort(offset + GAME_HEADER_SIZE + fenLength + 2 * ply) & 0xFFFF;
+	}
+
+	public String startFen(int game) {
+
+		int offset = offset(game);
+
+		switch (buffer.get(offset + 1)) {
+		case START_INITIAL_SETUP:
+			return INITIAL_SETUP_FEN;
+		case START_STANDARD:
+			return STANDARD_FEN;
+		default:
+			int fenLength = buffer.getShort(offset + 4) & 0xFFFF;
+			char[] fen = new char[fenLength];
+
+			for (int i = 0; i < fenLength; i++) {
+
+				fen[i] = (char) buffer.get(offset + GAME_HEADER_SIZE + i);
+			}
+			return new String(fen);
+		}
+	}
+
+	public ChessMatch replay(int game, int plies) {
+
+		ChessMatch chessMatch = new ChessMatch();
+		replay(game, plies, chessMatch);
+		return chessMatch;
+	}
+
+	// loads the start of the game into a match the caller reuses and plays the first moves
+	// straight through makeMove, the moves were legal when the game was written. the match
+	// settles once at the end instead of after every move
+	public void replay(int game, int plies, ChessMatch chessMatch) {
+
+		if (plies < 0 || plies > moveCount(game)) {
+
+			throw new IndexOutOfBoundsException("Game " + game + " has " + moveCount(game) + " moves");
+		}
+
+		chessMatch.loadFen(startFen(game));
+		int offset = offset(game);
+		int moves = offset + GAME_HEADER_SIZE + (buffer.getShort(offset + 4) & 0xFFFF);
+
+		for (int i = 0; i < plies; i++) {
+
+			chessMatch.makeMove(buffer.getShort(moves + 2 * i) & 0xFFFF);
+		}
+		chessMatch.settle();
+	}
+
+	// the same through performChessMove, so every move is checked again on the way
+	public void replayValidated(int game, int plies, ChessMatch chessMatch) {
+
+		if (plies < 0 || plies > moveCount(game)) {
+
+			throw new IndexOutOfBoundsException("Game " + game + " has " + moveCount(game) + " moves");
+		}
+
+		chessMatch.loadFen(startFen(game));
+
+		for (int i = 0; i < plies; i++) {
+
+			chessMatch.performChessMove(move(game, i));
+		}
+	}
+
+	private int offset(int game) {
+
+		if (game < 0 || game >= size) {
+
+			throw new IndexOutOfBoundsException("There is no game " + game);
+		}
+		return (int) buffer.getLong((int) indexOffset + 8 * game);
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		channel.close();
+	}
+}
@@ -0,0 +1,101 @@
+package chess.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import chess.ChessMatch;
+
+// appends games to a new archive, the index is written on close
+public class GameArchiveWriter implements Closeable {
+
+	private final DataOutputStream out;
+	private long position;
+	private long[] offsets = new long[1024];
+	private int size;
+
+	public GameArchiveWriter(Path path) throws IOException {
+
+		this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+		out.writeInt(GameArchive.MAGIC);
+		out.writeShort(GameArchive.VERSION);
+		out.writeShort(0);
+		position = GameArchive.HEADER_SIZE;
+	}
+
+	// the moves a match has played since it started from the given FEN
+	public int addGame(String startFen, ChessMatch chessMatch, int result) throws IOException {
+
+		int[] moves = chessMatch.getMoves();
+		return addGame(startFen, moves, moves.length, result);
+	}
+
+	// a null FEN stands for the ChessMatch initial setup. returns the number of the game
+	public int addGame(String startFen, int[] moves, int count, int result) throws IOException {
+
+		if (count > 0xFFFF) {
+
+			throw new IllegalArgumentException("A game can hold at most 65535 moves");
+		}
+
+		int start = GameArchive.START_FEN;
+		byte[] fen = new byte[0];
+
+		if (startFen == null || startFen.equals(GameArchive.INITIAL_SETUP_FEN)) {
+
+			start = GameArchive.START_INITIAL_SETUP;
+		} else if (startFen.equals(GameArchive.STANDARD_FEN)) {
+
+			start = GameArchive.START_STANDARD;
+		} else {
+
+			fen = startFen.getBytes(StandardCharsets.US_ASCII);
+		}
+
+		if (size == offsets.length) {
+
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		offsets[size] = position;
+
+		out.writeByte(result);
+		out.writeByte(start);
+		out.writeShort(count);
+		out.writeShort(fen.length);
+		out.write(fen);
+
+		for (int i = 0; i < count; i++) {
+
+			out.writeShort(moves[i]);
+		}
+
+		position += GameArchive.GAME_HEADER_SIZE + fen.length + 2L * count;
+		return size++;
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		long indexOffset = position;
+
+		for (int i = 0; i < size; i++) {
+
+			out.writeLong(offsets[i]);
+		}
+
+		out.writeLong(indexOffset);
+		out.writeInt(size);
+		out.writeInt(GameArchive.MAGIC);
+		out.close();
+	}
+}
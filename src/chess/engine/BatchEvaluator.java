@@ -0,0 +1,193 @@
+package chess.engine;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Move;
+import chess.PositionSnapshot;
+
+// evaluates or searches many positions at once on a work-stealing pool. every worker thread
+// owns a match, a search and a table, reloaded for each position, so tasks share nothing;
+// results go to the consumer on the worker that produced them, as soon as they are ready
+public class BatchEvaluator {
+
+	// searches are bounded by depth and nodes, the clock only has to stay out of the way
+	private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+	private final ForkJoinPool pool;
+
+	public BatchEvaluator(int threads, int tableMegabytes) {
+
+		if (threads < 1) {
+
+			throw new IllegalArgumentException("A batch needs at least one thread");
+		}
+
+		this.pool = new ForkJoinPool(threads, p -> new Worker(p, tableMegabytes), null, false);
+	}
+
+	// a depth of 0 gives the static evaluation, a node budget of 0 means none
+	public Batch evaluate(List<String> fens, int depth, long nodes, Consumer<BatchResult> results) {
+
+		return submit(fens.size(), fens::get, depth, nodes, results);
+	}
+
+	public Batch evaluateSnapshots(List<PositionSnapshot> snapshots, int depth, long nodes,
+			Consumer<BatchResult> results) {
+
+		return submit(snapshots.size(), i -> snapshots.get(i).toFen(), depth, nodes, results);
+	}
+
+	private Batch submit(int size, IntFunction<String> fens, int depth, long nodes, Consumer<BatchResult> results) {
+
+		Batch batch = new Batch(fens, depth, (nodes > 0) ? nodes : Long.MAX_VALUE, results);
+		batch.task = pool.submit(new Range(batch, 0, size));
+		return batch;
+	}
+
+	public void shutdown() {
+
+		pool.shutdownNow();
+	}
+
+	// a batch in flight: wait for it or cancel it. cancelling stops the searches running
+	// within a few thousand nodes and skips the positions not started yet
+	public static class Batch {
+
+		private final IntFunction<String> fens;
+		private final int depth;
+		private final long nodes;
+		private final Consumer<BatchResult> results;
+		private volatile boolean cancelled;
+		private ForkJoinTask<Integer> task;
+
+		private Batch(IntFunction<String> fens, int depth, long nodes, Consumer<BatchResult> results) {
+
+			this.fens = fens;
+			this.depth = depth;
+			this.nodes = nodes;
+			this.results = results;
+		}
+
+		public void cancel() {
+
+			cancelled = true;
+		}
+
+		public boolean isCancelled() {
+
+			return cancelled;
+		}
+
+		public boolean isDone() {
+
+			return task.isDone();
+		}
+
+		// waits for the batch, returns how many positions were evaluated
+		public int await() {
+
+			return task.join();
+		}
+	}
+
+	private static final class Worker extends ForkJoinWorkerThread {
+
+		private final ChessMatch chessMatch = new ChessMatch();
+		private final TranspositionTable table;
+		private final Search search;
+		private final Evaluator evaluator = new Evaluator();
+
+		Worker(ForkJoinPool pool, int tableMegabytes) {
+
+			super(pool);
+			setDaemon(true);
+			this.table = new TranspositionTable(tableMegabytes);
+			this.search = new Search(chessMatch, table);
+		}
+
+		BatchResult evaluate(Batch batch, int index) {
+
+			String fen = batch.fens.apply(index);
+
+			try {
+
+				chessMatch.loadFen(fen);
+			} catch (ChessException e) {
+
+				return new BatchResult(index, fen, null, e.getMessage());
+			}
+
+			// a failure is reported for its position alone, the next loadFen resets whatever
+			// state it left behind in the match
+			try {
+
+				if (batch.depth == 0) {
+
+					return new BatchResult(index, fen, new SearchResult(Move.NONE, evaluator.evaluate(chessMatch), 0, 1, 0), null);
+				}
+
+				// a clean table and history keep every result independent of what the worker did before
+				table.clear();
+				search.clearHistory();
+				SearchResult result = search.search(NO_TIME_LIMIT, batch.depth, batch.nodes, () -> batch.cancelled);
+				return new BatchResult(index, fen, result, null);
+			} catch (RuntimeException e) {
+
+				return new BatchResult(index, fen, null, e.toString());
+			}
+		}
+	}
+
+	// halves the range until single positions are left, idle workers steal the other halves
+	private static final class Range extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Batch batch;
+		private final int from;
+		private final int to;
+
+		Range(Batch batch, int from, int to) {
+
+			this.batch = batch;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Integer compute() {
+
+			if (batch.cancelled || from >= to) {
+
+				return 0;
+			}
+
+			if (to - from == 1) {
+
+				BatchResult result = ((Worker) Thread.currentThread()).evaluate(batch, from);
+
+				if (batch.cancelled) {
+
+					return 0;
+				}
+
+				batch.results.accept(result);
+				return 1;
+			}
+
+			int middle = (from + to) >>> 1;
+			Range left = new Range(batch, from, middle);
+			left.fork();
+			int evaluated = new Range(batch, middle, to).compute();
+			return evaluated + left.join();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package chess.engine;
+
+// the outcome of one position of a batch, in the order it finished rather than submitted
+public class BatchResult {
+
+	private final int index;
+	private final String fen;
+	private final SearchResult result;
+	private final String error;
+
+	BatchResult(int index, String fen, SearchResult result, String error) {
+
+		this.index = index;
+		this.fen = fen;
+		this.result = result;
+		this.error = error;
+	}
+
+	// position in the submitted list
+	public int getIndex() {
+		return index;
+	}
+
+	public String getFen() {
+		return fen;
+	}
+
+	// null when the position could not be loaded or evaluated
+	public SearchResult getResult() {
+		return result;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+
+		return index + " " + ((result != null) ? result : "error " + error);
+	}
+}
@@ -0,0 +1,90 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceType;
+
+// static evaluation in centipawns from the point of view of the side to move
+public class Evaluator {
+
+	private static final int[] CENTER = new int[64];
+	private static final int[] EDGE = new int[64];
+
+	static {
+
+		for (int square = 0; square < 64; square++) {
+
+			int row = square / 8;
+			int column = square % 8;
+			int rowDistance = Math.max(3 - row, row - 4);
+			int columnDistance = Math.max(3 - column, column - 4);
+
+			CENTER[square] = 6 - 2 * (rowDistance + columnDistance);
+			EDGE[square] = rowDistance + columnDistance;
+		}
+	}
+
+	public int evaluate(ChessMatch chessMatch) {
+
+		int score = evaluate(chessMatch, Color.WHITE) - evaluate(chessMatch, Color.BLACK);
+		score += mopUp(chessMatch, Color.WHITE) - mopUp(chessMatch, Color.BLACK);
+
+		return (chessMatch.getCurrentPlayer() == Color.WHITE) ? score : -score;
+	}
+
+	public static int material(ChessMatch chessMatch, Color color) {
+
+		return chessMatch.getMaterial(color);
+	}
+
+	private int evaluate(ChessMatch chessMatch, Color color) {
+
+		int score = material(chessMatch, color);
+
+		score += centralization(chessMatch.bitboard(color, PieceType.KNIGHT), 4);
+		score += centralization(chessMatch.bitboard(color, PieceType.BISHOP), 2);
+		score += centralization(chessMatch.bitboard(color, PieceType.QUEEN), 1);
+
+		long pawns = chessMatch.bitboard(color, PieceType.PAWN);
+
+		while (pawns != 0) {
+
+			int row = Long.numberOfTrailingZeros(pawns) / 8;
+			score += 4 * ((color == Color.WHITE) ? 6 - row : row - 1);
+			pawns &= pawns - 1;
+		}
+		return score;
+	}
+
+	private int centralization(long pieces, int weight) {
+
+		int score = 0;
+
+		while (pieces != 0) {
+
+			score += weight * CENTER[Long.numberOfTrailingZeros(pieces)];
+			pieces &= pieces - 1;
+		}
+		return score;
+	}
+
+	// once the other side has nothing but its king left, drive it to the edge and close in with our king
+	private int mopUp(ChessMatch chessMatch, Color color) {
+
+		Color opponent = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		long ownKing = chessMatch.bitboard(color, PieceType.KING);
+		long opponentKing = chessMatch.bitboard(opponent, PieceType.KING);
+
+		if (ownKing == 0 || opponentKing == 0 || material(chessMatch, opponent) != 0
+				|| material(chessMatch, color) < PieceType.ROOK.getValue()) {
+
+			return 0;
+		}
+
+		int ownSquare = Long.numberOfTrailingZeros(ownKing);
+		int opponentSquare = Long.numberOfTrailingZeros(opponentKing);
+		int distance = Math.abs(ownSquare / 8 - opponentSquare / 8) + Math.abs(ownSquare % 8 - opponentSquare % 8);
+
+		return 10 * EDGE[opponentSquare] + 4 * (14 - distance);
+	}
+}
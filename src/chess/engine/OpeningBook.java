@@ -0,0 +1,162 @@
+package chess.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.ChessMatch;
+import chess.Move;
+
+// moves known for positions, read from a file of entries sorted by Zobrist key and mapped
+// into memory. a probe is a binary search over the mapping and allocates nothing.
+//
+// layout, big endian: int magic, int entry count, then 16 byte entries of
+// long hash, int weight, short move, short reserved. entries of one hash are
+// stored by weight, heaviest first
+public class OpeningBook implements Closeable {
+
+	static final int MAGIC = 0x43484f42;
+	static final int HEADER_SIZE = 8;
+	static final int ENTRY_SIZE = 16;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int size;
+
+	private OpeningBook(FileChannel channel) throws IOException {
+
+		this.channel = channel;
+
+		if (channel.size() > Integer.MAX_VALUE) {
+
+			throw new IOException("Books over 2 GB are not supported");
+		}
+
+		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+
+			throw new IOException("Not an opening book");
+		}
+
+		this.size = buffer.getInt(4);
+
+		if ((long) HEADER_SIZE + (long) size * ENTRY_SIZE > buffer.limit()) {
+
+			throw new IOException("Opening book is truncated");
+		}
+	}
+
+	public static OpeningBook open(Path path) throws IOException {
+
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+
+			return new OpeningBook(channel);
+		} catch (IOException e) {
+
+			channel.close();
+			throw e;
+		}
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	// the heaviest move stored for the key, or Move.NONE
+	public int probe(long hash) {
+
+		int first = first(hash);
+		return (first < size && hash(first) == hash) ? move(first) : Move.NONE;
+	}
+
+	// a legal move of the book for the position, picked with chances following the weights.
+	// random is any value, for instance from ThreadLocalRandom
+	public int probe(ChessMatch chessMatch, long random) {
+
+		long hash = chessMatch.getHash();
+		int first = first(hash);
+		long total = 0;
+		int end = first;
+
+		for (; end < size && hash(end) == hash; end++) {
+
+			total += weight(end);
+		}
+
+		if (total == 0) {
+
+			return Move.NONE;
+		}
+
+		long pick = Math.floorMod(random, total);
+
+		for (int i = first; i < end; i++) {
+
+			pick -= weight(i);
+
+			// keys collide now and then, a move that does not fit the position is skipped
+			if (pick < 0 && chessMatch.isLegal(move(i))) {
+
+				return move(i);
+			}
+		}
+
+		for (int i = first; i < end; i++) {
+
+			if (chessMatch.isLegal(move(i))) {
+
+				return move(i);
+			}
+		}
+		return Move.NONE;
+	}
+
+	// index of the first entry whose key is not below the given one
+	private int first(long hash) {
+
+		int low = 0;
+		int high = size;
+
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (hash(middle) < hash) {
+
+				low = middle + 1;
+			} else {
+
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long hash(int index) {
+
+		return buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+	}
+
+	private int weight(int index) {
+
+		return buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + 8);
+	}
+
+	private int move(int index) {
+
+		return buffer.getShort(HEADER_SIZE + index * ENTRY_SIZE + 12) & 0xFFFF;
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		channel.close();
+	}
+}
@@ -0,0 +1,233 @@
+package chess.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.archive.GameArchive;
+
+// collects (hash, move, weight) triples from games and writes them as an OpeningBook.
+// the triples sit in parallel primitive arrays and are sorted in place, not in a map
+public class OpeningBookBuilder {
+
+	public static final int DEFAULT_MAX_PLIES = 24;
+
+	private final int maxPlies;
+	private long[] hashes = new long[1 << 16];
+	private int[] moves = new int[1 << 16];
+	private int[] weights = new int[1 << 16];
+	private int size;
+
+	public OpeningBookBuilder() {
+
+		this(DEFAULT_MAX_PLIES);
+	}
+
+	public OpeningBookBuilder(int maxPlies) {
+
+		this.maxPlies = maxPlies;
+	}
+
+	public void add(long hash, int move, int weight) {
+
+		if (size == hashes.length) {
+
+			hashes = Arrays.copyOf(hashes, size * 2);
+			moves = Arrays.copyOf(moves, size * 2);
+			weights = Arrays.copyOf(weights, size * 2);
+		}
+
+		hashes[size] = hash;
+		moves[size] = move;
+		weights[size++] = weight;
+	}
+
+	// the opening moves of every game. a move scores 2 when its side went on to win,
+	// 1 for a draw or an unknown result and 0 for a loss
+	public void addGames(GameArchive archive) {
+
+		ChessMatch chessMatch = new ChessMatch();
+
+		for (int game = 0; game < archive.size(); game++) {
+
+			int plies = Math.min(maxPlies, archive.moveCount(game));
+			int result = archive.result(game);
+			archive.replay(game, 0, chessMatch);
+
+			for (int ply = 0; ply < plies; ply++) {
+
+				int move = archive.move(game, ply);
+				add(chessMatch.getHash(), move, weight(result, chessMatch.getCurrentPlayer()));
+				chessMatch.makeMove(move);
+			}
+		}
+	}
+
+	private static int weight(int result, Color side) {
+
+		if (result == GameArchive.RESULT_WHITE_WINS) {
+
+			return (side == Color.WHITE) ? 2 : 0;
+		}
+		if (result == GameArchive.RESULT_BLACK_WINS) {
+
+			return (side == Color.BLACK) ? 2 : 0;
+		}
+		return 1;
+	}
+
+	// merges repeated moves and writes the entries weighing at least minWeight.
+	// returns the number of entries written
+	public int write(Path path, int minWeight) throws IOException {
+
+		sort(0, size - 1);
+		int merged = merge(minWeight);
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+
+			out.writeInt(OpeningBook.MAGIC);
+			out.writeInt(merged);
+
+			for (int i = 0; i < merged; i++) {
+
+				out.writeLong(hashes[i]);
+				out.writeInt(weights[i]);
+				out.writeShort(moves[i]);
+				out.writeShort(0);
+			}
+		}
+		return merged;
+	}
+
+	// sums the weights of equal (hash, move) pairs, drops the light ones and orders the
+	// moves of each hash by weight. the entries end up at the front of the arrays
+	private int merge(int minWeight) {
+
+		int merged = 0;
+
+		for (int i = 0; i < size;) {
+
+			int j = i;
+			long weight = 0;
+
+			while (j < size && hashes[j] == hashes[i] && moves[j] == moves[i]) {
+
+				weight += weights[j++];
+			}
+
+			if (weight >= minWeight && weight > 0) {
+
+				hashes[merged] = hashes[i];
+				moves[merged] = moves[i];
+				weights[merged++] = (int) Math.min(weight, Integer.MAX_VALUE);
+			}
+			i = j;
+		}
+
+		for (int i = 0; i < merged;) {
+
+			int j = i + 1;
+
+			while (j < merged && hashes[j] == hashes[i]) {
+
+				j++;
+			}
+
+			// a handful of moves per position, insertion sort is enough
+			for (int k = i + 1; k < j; k++) {
+
+				for (int l = k; l > i && weights[l] > weights[l - 1]; l--) {
+
+					swap(l, l - 1);
+				}
+			}
+			i = j;
+		}
+		size = merged;
+		return merged;
+	}
+
+	// quicksort by hash, then by move. three way partitions, since the first positions
+	// of the games repeat the same keys over and over
+	private void sort(int low, int high) {
+
+		while (low < high) {
+
+			if (high - low < 16) {
+
+				for (int i = low + 1; i <= high; i++) {
+
+					for (int j = i; j > low && compare(j, j - 1) < 0; j--) {
+
+						swap(j, j - 1);
+					}
+				}
+				return;
+			}
+
+			swap((low + high) >>> 1, low);
+			int less = low;
+			int greater = high;
+			int i = low + 1;
+
+			// the pivot value always sits at index less
+			while (i <= greater) {
+
+				int c = compare(i, less);
+
+				if (c < 0) {
+
+					swap(less++, i++);
+				} else if (c > 0) {
+
+					swap(i, greater--);
+				} else {
+
+					i++;
+				}
+			}
+
+			// recurse into the smaller side to keep the stack shallow
+			if (less - low < high - greater) {
+
+				sort(low, less - 1);
+				low = greater + 1;
+			} else {
+
+				sort(greater + 1, high);
+				high = less - 1;
+			}
+		}
+	}
+
+	private int compare(int i, int j) {
+
+		int c = Long.compare(hashes[i], hashes[j]);
+		return (c != 0) ? c : Integer.compare(moves[i], moves[j]);
+	}
+
+	private void swap(int i, int j) {
+
+		long hash = hashes[i];
+		hashes[i] = hashes[j];
+		hashes[j] = hash;
+
+		int move = moves[i];
+		moves[i] = moves[j];
+		moves[j] = move;
+
+		int weight = weights[i];
+		weights[i] = weights[j];
+		weights[j] = weight;
+	}
+
+	public int size() {
+
+		return size;
+	}
+}
@@ -0,0 +1,119 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.ChessMatch;
+import chess.Move;
+
+// lazy SMP: helper threads search their own copy of the root and only talk through the shared table
+public class ParallelSearch {
+
+	private final int threads;
+	private final TranspositionTable table;
+	private final ExecutorService helpers;
+	private volatile OpeningBook openingBook;
+
+	public ParallelSearch(int threads, TranspositionTable table) {
+
+		if (threads < 1) {
+
+			throw new IllegalArgumentException("A search needs at least one thread");
+		}
+
+		this.threads = threads;
+		this.table = table;
+
+		AtomicInteger count = new AtomicInteger();
+		this.helpers = (threads > 1) ? Executors.newFixedThreadPool(threads - 1, r -> {
+
+			Thread thread = new Thread(r, "search-helper-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	public SearchResult search(ChessMatch chessMatch, long millis) {
+
+		return search(chessMatch, millis, Search.MAX_PLY);
+	}
+
+	// positions found in the book are answered from it without searching
+	public void setOpeningBook(OpeningBook openingBook) {
+
+		this.openingBook = openingBook;
+	}
+
+	// the calling thread runs the main search on the match itself and returns its result
+	public SearchResult search(ChessMatch chessMatch, long millis, int maxDepth) {
+
+		OpeningBook book = openingBook;
+
+		if (book != null) {
+
+			int move = book.probe(chessMatch, ThreadLocalRandom.current().nextLong());
+
+			if (move != Move.NONE) {
+
+				return new SearchResult(move, 0, 0, 0, 0);
+			}
+		}
+
+		List<Search> searches = new ArrayList<>();
+		List<Future<?>> futures = new ArrayList<>();
+
+		// the table is aged here, once, never by threads that already share it
+		table.newSearch();
+
+		for (int i = 1; i < threads; i++) {
+
+			Search helper = new Search(chessMatch.copy(), table, i);
+			searches.add(helper);
+			futures.add(helpers.submit(() -> helper.searchShared(millis, maxDepth)));
+		}
+
+		SearchResult result = new Search(chessMatch, table).searchShared(millis, maxDepth);
+		long nodes = result.getNodes();
+
+		for (Search helper : searches) {
+
+			helper.stop();
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+
+			try {
+
+				futures.get(i).get();
+				nodes += searches.get(i).getNodes();
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+
+				throw new IllegalStateException("Search helper failed", e.getCause());
+			}
+		}
+
+		return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes, result.getMillis());
+	}
+
+	public int getThreads() {
+
+		return threads;
+	}
+
+	public void shutdown() {
+
+		if (helpers != null) {
+
+			helpers.shutdownNow();
+		}
+	}
+}
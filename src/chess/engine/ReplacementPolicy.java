@@ -0,0 +1,12 @@
+package chess.engine;
+
+public enum ReplacementPolicy {
+
+	// first slot of a bucket keeps the deepest entry, second slot takes everything else
+	DEPTH_PREFERRED_AND_ALWAYS,
+	// one entry per bucket, kept while it is deeper and from the current search
+	DEPTH_PREFERRED,
+	// one entry per bucket, always overwritten
+	ALWAYS_REPLACE;
+
+}
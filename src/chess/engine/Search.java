@@ -0,0 +1,521 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.tablebase.Tablebase;
+
+// negamax alpha-beta with iterative deepening, aspiration windows and a hard deadline
+public class Search {
+
+	public static final int INFINITE = 30000;
+	public static final int MATE = 29000;
+	public static final int MAX_PLY = 64;
+
+	// scores past this bound are mates, tablebase mates can lie well beyond MAX_PLY
+	private static final int MATE_BOUND = MATE - 4 * MAX_PLY;
+	private static final int NO_SCORE = Integer.MIN_VALUE;
+
+	private static final int ASPIRATION_WINDOW = 40;
+	private static final int CHECK_TIME_EVERY = 2047;
+	private static final BooleanSupplier NEVER = () -> false;
+
+	private final ChessMatch chessMatch;
+	private final TranspositionTable table;
+	private final Evaluator evaluator = new Evaluator();
+
+	private final MoveList[] moves = new MoveList[MAX_PLY + 1];
+	private final int[][] orderScores = new int[MAX_PLY + 1][MoveList.MAX_MOVES];
+	private final int[][] killers = new int[MAX_PLY + 1][2];
+	private final int[][] history = new int[64][64];
+	private final int[] rookSquares = new int[Tablebase.MAX_ROOKS];
+
+	// helpers of a parallel search get a non zero index: odd ones skip every other depth
+	// and every helper shuffles its quiet moves differently, so the threads spread over the tree
+	private final int threadIndex;
+	private long random;
+
+	private long deadline;
+	private long maxNodes = Long.MAX_VALUE;
+	private BooleanSupplier cancelled = NEVER;
+	private long nodes;
+	private volatile boolean stopped;
+	private int rootBestMove;
+
+	public Search(ChessMatch chessMatch, TranspositionTable table) {
+
+		this(chessMatch, table, 0);
+	}
+
+	public Search(ChessMatch chessMatch, TranspositionTable table, int threadIndex) {
+
+		this.chessMatch = chessMatch;
+		this.table = table;
+		this.threadIndex = threadIndex;
+		this.random = 0x9E3779B97F4A7C15L * (threadIndex + 1);
+
+		for (int i = 0; i <= MAX_PLY; i++) {
+
+			moves[i] = new MoveList();
+		}
+	}
+
+	public SearchResult search(long millis) {
+
+		return search(millis, MAX_PLY);
+	}
+
+	public SearchResult search(long millis, int maxDepth) {
+
+		return search(millis, maxDepth, Long.MAX_VALUE, NEVER);
+	}
+
+	// stops at whichever comes first: the time, the depth, the node budget or the cancelled flag,
+	// the last two being looked at as often as the clock
+	public SearchResult search(long millis, int maxDepth, long maxNodes, BooleanSupplier cancelled) {
+
+		table.newSearch();
+		return iterate(millis, maxDepth, maxNodes, cancelled);
+	}
+
+	// for the threads of a parallel search, which age the shared table once before any of them starts
+	SearchResult searchShared(long millis, int maxDepth) {
+
+		return iterate(millis, maxDepth, Long.MAX_VALUE, NEVER);
+	}
+
+	private SearchResult iterate(long millis, int maxDepth, long maxNodes, BooleanSupplier cancelled) {
+
+		long start = System.nanoTime();
+		deadline = start + millis * 1000000L;
+		this.maxNodes = maxNodes;
+		this.cancelled = cancelled;
+		nodes = 0;
+		stopped = false;
+
+		int bestMove = Move.NONE;
+		int bestScore = 0;
+		int completedDepth = 0;
+
+		// odd helpers go two plies at a time, each iteration one deeper than the main thread's would be
+		int step = 1 + (threadIndex & 1);
+
+		for (int depth = step; depth <= Math.min(maxDepth, MAX_PLY); depth += step) {
+
+			int delta = ASPIRATION_WINDOW;
+			int alpha = (depth >= 4) ? Math.max(-INFINITE, bestScore - delta) : -INFINITE;
+			int beta = (depth >= 4) ? Math.min(INFINITE, bestScore + delta) : INFINITE;
+			int score;
+
+			while (true) {
+
+				// each attempt starts over, a move from a failed window says nothing about the next one
+				rootBestMove = Move.NONE;
+				score = negamax(depth, alpha, beta, 0);
+
+				if (stopped) {
+
+					break;
+				}
+
+				if (score <= alpha && alpha > -INFINITE) {
+
+					alpha = Math.max(-INFINITE, alpha - delta);
+				} else if (score >= beta && beta < INFINITE) {
+
+					beta = Math.min(INFINITE, beta + delta);
+				} else {
+
+					break;
+				}
+				delta *= 2;
+			}
+
+			// a root move is only recorded once its whole subtree was searched and it raised alpha,
+			// so it beats the previous best even when the attempt was cut short
+			if (rootBestMove != Move.NONE) {
+
+				bestMove = rootBestMove;
+			}
+
+			if (stopped) {
+
+				break;
+			}
+
+			bestScore = score;
+			completedDepth = depth;
+
+			if (Math.abs(bestScore) >= MATE_BOUND) {
+
+				break;
+			}
+		}
+
+		if (bestMove == Move.NONE) {
+
+			bestMove = firstLegalMove();
+		}
+
+		long millisSpent = (System.nanoTime() - start) / 1000000L;
+		return new SearchResult(bestMove, bestScore, completedDepth, nodes, millisSpent);
+	}
+
+	// forgets the killer moves and the history, for searches that must not depend on earlier ones
+	public void clearHistory() {
+
+		for (int i = 0; i <= MAX_PLY; i++) {
+
+			Arrays.fill(killers[i], Move.NONE);
+		}
+
+		for (int[] row : history) {
+
+			Arrays.fill(row, 0);
+		}
+	}
+
+	public void stop() {
+
+		stopped = true;
+	}
+
+	public long getNodes() {
+
+		return nodes;
+	}
+
+	private int negamax(int depth, int alpha, int beta, int ply) {
+
+		if ((++nodes & CHECK_TIME_EVERY) == 0
+				&& (System.nanoTime() > deadline || nodes >= maxNodes || cancelled.getAsBoolean())) {
+
+			stopped = true;
+		}
+
+		if (stopped) {
+
+			return 0;
+		}
+
+		// a repeated position counts as a draw inside the tree, the fifty-move rule as well
+		if (ply > 0 && (chessMatch.getHalfmoveClock() >= 100 || chessMatch.isRepetition())) {
+
+			return 0;
+		}
+
+		if (ply > 0) {
+
+			int score = tablebaseScore(ply);
+
+			if (score != NO_SCORE) {
+
+				return score;
+			}
+		}
+
+		Color side = chessMatch.getCurrentPlayer();
+		boolean inCheck = chessMatch.isInCheck(side);
+
+		if (inCheck && ply < MAX_PLY / 2) {
+
+			depth++;
+		}
+
+		if (depth <= 0 || ply >= MAX_PLY) {
+
+			return quiescence(alpha, beta, ply);
+		}
+
+		long key = chessMatch.getHash();
+		long entry = table.probe(key);
+		int hashMove = Move.NONE;
+
+		if (entry != 0) {
+
+			hashMove = TranspositionTable.move(entry);
+
+			if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+
+				int score = fromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+
+				if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+
+					return score;
+				}
+			}
+		}
+
+		MoveList list = moves[ply];
+		chessMatch.generateMoves(side, list);
+		scoreMoves(list, ply, hashMove);
+
+		int originalAlpha = alpha;
+		int bestScore = -INFINITE;
+		int bestMove = Move.NONE;
+		int legal = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+
+			int move = pickNext(list, ply, i);
+			chessMatch.makeMove(move);
+
+			if (chessMatch.isInCheck(side)) {
+
+				chessMatch.undoMove();
+				continue;
+			}
+
+			legal++;
+			int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+			chessMatch.undoMove();
+
+			if (stopped) {
+
+				return 0;
+			}
+
+			if (score > bestScore) {
+
+				bestScore = score;
+				bestMove = move;
+			}
+
+			if (score > alpha) {
+
+				alpha = score;
+
+				if (ply == 0) {
+
+					rootBestMove = move;
+				}
+			}
+
+			if (alpha >= beta) {
+
+				if (!Move.isCapture(move)) {
+
+					if (killers[ply][0] != move) {
+
+						killers[ply][1] = killers[ply][0];
+						killers[ply][0] = move;
+					}
+					history[Move.source(move)][Move.target(move)] += depth * depth;
+				}
+				break;
+			}
+		}
+
+		if (legal == 0) {
+
+			return inCheck ? -MATE + ply : 0;
+		}
+
+		int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND
+				: (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+		table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+
+		return bestScore;
+	}
+
+	private int quiescence(int alpha, int beta, int ply) {
+
+		if ((++nodes & CHECK_TIME_EVERY) == 0
+				&& (System.nanoTime() > deadline || nodes >= maxNodes || cancelled.getAsBoolean())) {
+
+			stopped = true;
+		}
+
+		if (stopped) {
+
+			return 0;
+		}
+
+		int tablebaseScore = tablebaseScore(ply);
+
+		if (tablebaseScore != NO_SCORE) {
+
+			return tablebaseScore;
+		}
+
+		int standPat = evaluator.evaluate(chessMatch);
+
+		if (standPat >= beta || ply >= MAX_PLY) {
+
+			return standPat;
+		}
+
+		if (standPat > alpha) {
+
+			alpha = standPat;
+		}
+
+		Color side = chessMatch.getCurrentPlayer();
+		MoveList list = moves[ply];
+		chessMatch.generateMoves(side, list);
+
+		int captures = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+
+			int move = list.get(i);
+
+			if (Move.isCapture(move) || Move.promotionType(move) == PieceType.QUEEN) {
+
+				list.set(captures++, move);
+			}
+		}
+		list.truncate(captures);
+		scoreMoves(list, ply, Move.NONE);
+
+		for (int i = 0; i < list.size(); i++) {
+
+			int move = pickNext(list, ply, i);
+			chessMatch.makeMove(move);
+
+			if (chessMatch.isInCheck(side)) {
+
+				chessMatch.undoMove();
+				continue;
+			}
+
+			int score = -quiescence(-beta, -alpha, ply + 1);
+			chessMatch.undoMove();
+
+			if (stopped) {
+
+				return 0;
+			}
+
+			if (score >= beta) {
+
+				return score;
+			}
+
+			if (score > alpha) {
+
+				alpha = score;
+			}
+		}
+		return alpha;
+	}
+
+	// hash move first, then captures by most valuable victim and least valuable attacker, killers and history
+	private void scoreMoves(MoveList list, int ply, int hashMove) {
+
+		for (int i = 0; i < list.size(); i++) {
+
+			int move = list.get(i);
+			int score;
+
+			if (move == hashMove) {
+
+				score = 1000000;
+			} else if (Move.isCapture(move)) {
+
+				PieceType victim = chessMatch.pieceTypeAt(Move.target(move));
+				PieceType attacker = chessMatch.pieceTypeAt(Move.source(move));
+				int victimValue = (victim == null) ? PieceType.PAWN.getValue() : victim.getValue();
+
+				score = 100000 + victimValue * 10 - attacker.getValue() / 10;
+			} else if (Move.isPromotion(move)) {
+
+				score = 90000 + Move.promotionType(move).getValue();
+			} else if (move == killers[ply][0]) {
+
+				score = 80000;
+			} else if (move == killers[ply][1]) {
+
+				score = 79000;
+			} else {
+
+				score = Math.min(history[Move.source(move)][Move.target(move)], 70000);
+
+				if (threadIndex != 0) {
+
+					random ^= random << 13;
+					random ^= random >>> 7;
+					random ^= random << 17;
+					score += (int) (random & 0xFF);
+				}
+			}
+			orderScores[ply][i] = score;
+		}
+	}
+
+	// selection sort step: brings the best remaining move to the index
+	private int pickNext(MoveList list, int ply, int index) {
+
+		int[] scores = orderScores[ply];
+		int best = index;
+
+		for (int i = index + 1; i < list.size(); i++) {
+
+			if (scores[i] > scores[best]) {
+
+				best = i;
+			}
+		}
+
+		int move = list.get(best);
+		list.set(best, list.get(index));
+		list.set(index, move);
+
+		int score = scores[best];
+		scores[best] = scores[index];
+		scores[index] = score;
+
+		return move;
+	}
+
+	// exact score of a rook ending, counted in plies from the root like any other mate
+	private int tablebaseScore(int ply) {
+
+		Tablebase tablebase = chessMatch.getTablebase();
+
+		if (tablebase == null) {
+
+			return NO_SCORE;
+		}
+
+		int result = tablebase.probe(chessMatch, rookSquares);
+
+		if (result == Tablebase.NOT_FOUND) {
+
+			return NO_SCORE;
+		}
+
+		switch (Tablebase.wdl(result)) {
+		case Tablebase.WIN:
+			return MATE - ply - Tablebase.plies(result);
+		case Tablebase.LOSS:
+			return -MATE + ply + Tablebase.plies(result);
+		default:
+			return 0;
+		}
+	}
+
+	private int firstLegalMove() {
+
+		MoveList list = new MoveList();
+		return (chessMatch.generateLegalMoves(list) > 0) ? list.get(0) : Move.NONE;
+	}
+
+	// mate scores are stored relative to the node so they stay right when reached at another ply
+	private static int toTable(int score, int ply) {
+
+		return (score >= MATE_BOUND) ? score + ply : (score <= -MATE_BOUND) ? score - ply : score;
+	}
+
+	private static int fromTable(int score, int ply) {
+
+		return (score >= MATE_BOUND) ? score - ply : (score <= -MATE_BOUND) ? score + ply : score;
+	}
+}
@@ -0,0 +1,48 @@
+package chess.engine;
+
+import chess.Move;
+
+public class SearchResult {
+
+	private final int bestMove;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long millis;
+
+	public SearchResult(int bestMove, int score, int depth, long nodes, long millis) {
+
+		this.bestMove = bestMove;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.millis = millis;
+	}
+
+	public int getBestMove() {
+		return bestMove;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+	@Override
+	public String toString() {
+
+		return Move.toString(bestMove) + " score " + score + " depth " + depth + " nodes " + nodes + " time "
+				+ millis + "ms";
+	}
+}
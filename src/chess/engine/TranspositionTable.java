@@ -0,0 +1,198 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// fixed size hash table shared by the search threads without locks.
+// each entry is two longs, the key xored with the data and the data itself,
+// so a torn write from two threads fails the key check instead of returning garbage
+public class TranspositionTable {
+
+	public static final int EXACT = 1;
+	public static final int LOWER_BOUND = 2;
+	public static final int UPPER_BOUND = 3;
+
+	private static final int LONGS_PER_ENTRY = 2;
+
+	// 2^30 longs, 8 GB: the largest power of two an array index and index() can still hold
+	private static final long MAX_LONGS = 1L << 30;
+
+	private final AtomicLongArray table;
+	private final int bucketMask;
+	private final ReplacementPolicy policy;
+
+	// only the two-tier policy has a use for a second entry, the others get one per bucket
+	private final int entriesPerBucket;
+	private final int longsPerBucket;
+	private volatile int generation;
+
+	public TranspositionTable(int megabytes) {
+
+		this(megabytes, ReplacementPolicy.DEPTH_PREFERRED_AND_ALWAYS);
+	}
+
+	public TranspositionTable(int megabytes, ReplacementPolicy policy) {
+
+		if (megabytes < 1) {
+
+			throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+		}
+
+		this.entriesPerBucket = (policy == ReplacementPolicy.DEPTH_PREFERRED_AND_ALWAYS) ? 2 : 1;
+		this.longsPerBucket = LONGS_PER_ENTRY * entriesPerBucket;
+
+		long buckets = Long.highestOneBit(((long) megabytes << 20) / (longsPerBucket * 8));
+		buckets = Math.min(buckets, MAX_LONGS / longsPerBucket);
+
+		this.table = new AtomicLongArray((int) (buckets * longsPerBucket));
+		this.bucketMask = (int) (buckets - 1);
+		this.policy = policy;
+	}
+
+	public static long pack(int move, int score, int depth, int bound, int generation) {
+
+		return (move & 0xFFFFL) | ((score & 0xFFFFL) << 16) | ((depth & 0xFFL) << 32) | ((bound & 0x3L) << 40)
+				| ((generation & 0xFFL) << 42);
+	}
+
+	public static int move(long data) {
+
+		return (int) (data & 0xFFFF);
+	}
+
+	public static int score(long data) {
+
+		return (short) (data >>> 16);
+	}
+
+	public static int depth(long data) {
+
+		return (int) ((data >>> 32) & 0xFF);
+	}
+
+	public static int bound(long data) {
+
+		return (int) ((data >>> 40) & 0x3);
+	}
+
+	private static int generation(long data) {
+
+		return (int) ((data >>> 42) & 0xFF);
+	}
+
+	// called once per search so entries from older searches are replaced first
+	public void newSearch() {
+
+		generation = (generation + 1) & 0xFF;
+	}
+
+	// data of the entry stored for the key, or 0 when there is none
+	public long probe(long key) {
+
+		int slot = find(index(key), key);
+		return (slot < 0) ? 0 : table.get(slot + 1);
+	}
+
+	// slot of the bucket holding the key, or -1
+	private int find(int index, long key) {
+
+		for (int i = 0; i < entriesPerBucket; i++) {
+
+			int slot = index + i * LONGS_PER_ENTRY;
+			long data = table.get(slot + 1);
+
+			if (data != 0 && (table.get(slot) ^ data) == key) {
+
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	public void store(long key, int move, int score, int depth, int bound) {
+
+		int index = index(key);
+		int current = generation;
+		long data = pack(move, score, depth, bound, current);
+		int slot = index;
+		int found = find(index, key);
+
+		// an entry of the position itself never protects the first slot
+		long firstData = table.get(index + 1);
+		boolean deeperFirst = found != index && firstData != 0 && generation(firstData) == current
+				&& depth(firstData) > depth;
+
+		switch (policy) {
+		case ALWAYS_REPLACE:
+			break;
+		case DEPTH_PREFERRED:
+			if (deeperFirst) {
+
+				return;
+			}
+			break;
+		default:
+			if (deeperFirst) {
+
+				slot = index + LONGS_PER_ENTRY;
+			}
+			break;
+		}
+
+		// keep the best move of an earlier, shallower entry for the same position
+		if (move == 0 && found >= 0) {
+
+			long previous = table.get(found + 1);
+
+			if (previous != 0 && (table.get(found) ^ previous) == key) {
+
+				data = pack(move(previous), score, depth, bound, current);
+			}
+		}
+
+		table.set(slot, key ^ data);
+		table.set(slot + 1, data);
+
+		// the position moved up to the depth-preferred slot, its old copy must not linger
+		if (found >= 0 && found != slot) {
+
+			table.set(found + 1, 0L);
+			table.set(found, 0L);
+		}
+	}
+
+	public void clear() {
+
+		for (int i = 0; i < table.length(); i++) {
+
+			table.set(i, 0L);
+		}
+	}
+
+	// per mille of the first thousand entries used by the current search
+	public int hashfull() {
+
+		int entries = Math.min(1000, table.length() / LONGS_PER_ENTRY);
+		int used = 0;
+
+		for (int i = 0; i < entries; i++) {
+
+			long data = table.get(i * LONGS_PER_ENTRY + 1);
+
+			if (data != 0 && generation(data) == generation) {
+
+				used++;
+			}
+		}
+		return used * 1000 / entries;
+	}
+
+	public long sizeInBytes() {
+
+		return table.length() * 8L;
+	}
+
+	private int index(long key) {
+
+		return (int) ((key ^ (key >>> 32)) & bucketMask) * longsPerBucket;
+	}
+}
@@ -0,0 +1,78 @@
+package chess.pgn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// counts kept by an import while it runs, read once it is over
+public class ImportResult {
+
+	// only the first rejections are kept with their reason
+	private static final int MAX_REASONS = 100;
+
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final List<String> reasons = Collections.synchronizedList(new ArrayList<>());
+	private long games;
+	private long millis;
+
+	void accept() {
+
+		accepted.increment();
+	}
+
+	void reject(PgnGame game, String reason) {
+
+		rejected.increment();
+
+		if (reasons.size() < MAX_REASONS) {
+
+			reasons.add("game " + game.getNumber() + ": " + reason);
+		}
+	}
+
+	void finish(long games, long millis) {
+
+		this.games = games;
+		this.millis = millis;
+	}
+
+	public long getGames() {
+
+		return games;
+	}
+
+	public long getAccepted() {
+
+		return accepted.sum();
+	}
+
+	public long getRejected() {
+
+		return rejected.sum();
+	}
+
+	public List<String> getReasons() {
+
+		return reasons;
+	}
+
+	public long getMillis() {
+
+		return millis;
+	}
+
+	public double getGamesPerSecond() {
+
+		return (millis == 0) ? 0 : games * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+
+		return String.format(Locale.ROOT, "%d games, %d accepted, %d rejected in %d ms (%.0f games/s)", games,
+				getAccepted(), getRejected(), millis, getGamesPerSecond());
+	}
+}
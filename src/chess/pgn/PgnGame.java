@@ -0,0 +1,55 @@
+package chess.pgn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessMatch;
+
+// one game as read from the file, before its moves have been checked
+public class PgnGame {
+
+	private final long number;
+	private final Map<String, String> tags = new LinkedHashMap<>();
+	private final List<String> moves = new ArrayList<>();
+	private String result = "*";
+
+	public PgnGame(long number) {
+
+		this.number = number;
+	}
+
+	// position of the game in the file, counting from 1
+	public long getNumber() {
+
+		return number;
+	}
+
+	public Map<String, String> getTags() {
+
+		return tags;
+	}
+
+	public List<String> getMoves() {
+
+		return moves;
+	}
+
+	public String getResult() {
+
+		return result;
+	}
+
+	void setResult(String result) {
+
+		this.result = result;
+	}
+
+	// the FEN tag when the game starts from a set up position
+	public String getStartFen() {
+
+		String fen = tags.get("FEN");
+		return (fen != null) ? fen : ChessMatch.STANDARD_FEN;
+	}
+}
@@ -0,0 +1,251 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.archive.GameArchive;
+import chess.archive.GameArchiveWriter;
+
+// parses games on the calling thread and replays them on worker threads, each with its own
+// match. bounded queues sit between the stages, so a slow stage holds the others back
+// instead of filling the heap. accepted games reach the archive in the order they finish
+public class PgnImporter {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	private static final PgnGame END = new PgnGame(0);
+	private static final ParsedGame END_OF_GAMES = new ParsedGame(null, null, 0);
+
+	private final int threads;
+	private final int queueCapacity;
+
+	public PgnImporter(int threads) {
+
+		this(threads, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public PgnImporter(int threads, int queueCapacity) {
+
+		if (threads < 1) {
+
+			throw new IllegalArgumentException("An import needs at least one thread");
+		}
+
+		this.threads = threads;
+		this.queueCapacity = queueCapacity;
+	}
+
+	// the archive may be null when the games only need checking
+	public ImportResult importGames(Reader in, GameArchiveWriter archive) throws IOException, InterruptedException {
+
+		long start = System.nanoTime();
+		ImportResult result = new ImportResult();
+		BlockingQueue<PgnGame> games = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ParsedGame> accepted = (archive != null) ? new ArrayBlockingQueue<>(queueCapacity) : null;
+
+		AtomicInteger count = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads + ((archive != null) ? 1 : 0), r -> {
+
+			Thread thread = new Thread(r, "pgn-import-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		List<Future<?>> workers = new ArrayList<>();
+		Future<IOException> writer = null;
+		long read = 0;
+
+		try {
+
+			for (int i = 0; i < threads; i++) {
+
+				workers.add(pool.submit(() -> {
+
+					replay(games, accepted, result);
+					return null;
+				}));
+			}
+
+			if (archive != null) {
+
+				writer = pool.submit(() -> write(accepted, archive));
+			}
+
+			try (PgnReader reader = new PgnReader(in)) {
+
+				PgnGame game;
+
+				while ((game = reader.next()) != null) {
+
+					put(games, game, workers);
+					read++;
+				}
+			} finally {
+
+				for (int i = 0; i < threads; i++) {
+
+					put(games, END, workers);
+				}
+			}
+
+			await(workers);
+
+			if (writer != null) {
+
+				accepted.put(END_OF_GAMES);
+				IOException failure = writer.get();
+
+				if (failure != null) {
+
+					throw failure;
+				}
+			}
+		} catch (ExecutionException e) {
+
+			throw new IllegalStateException("PGN import failed", e.getCause());
+		} finally {
+
+			pool.shutdownNow();
+		}
+
+		result.finish(read, (System.nanoTime() - start) / 1000000);
+		return result;
+	}
+
+	private static void replay(BlockingQueue<PgnGame> games, BlockingQueue<ParsedGame> accepted, ImportResult result)
+			throws InterruptedException {
+
+		ChessMatch chessMatch = new ChessMatch();
+		MoveList buffer = new MoveList();
+
+		for (PgnGame game = games.take(); game != END; game = games.take()) {
+
+			try {
+
+				List<String> sans = game.getMoves();
+				int[] moves = new int[sans.size()];
+				chessMatch.loadFen(game.getStartFen());
+				boolean legal = true;
+
+				for (int i = 0; i < moves.length && legal; i++) {
+
+					moves[i] = San.resolve(chessMatch, sans.get(i), buffer);
+					legal = moves[i] != Move.NONE;
+
+					if (legal) {
+
+						chessMatch.makeMove(moves[i]);
+					} else {
+
+						result.reject(game, "illegal or ambiguous move " + sans.get(i) + " at ply " + (i + 1));
+					}
+				}
+
+				if (legal) {
+
+					result.accept();
+
+					if (accepted != null) {
+
+						accepted.put(new ParsedGame(game.getStartFen(), moves, archiveResult(game.getResult())));
+					}
+				}
+			} catch (ChessException e) {
+
+				result.reject(game, e.getMessage());
+			} catch (RuntimeException e) {
+
+				result.reject(game, e.toString());
+			}
+		}
+	}
+
+	// keeps draining after a failed write so the workers never block on a full queue
+	private static IOException write(BlockingQueue<ParsedGame> accepted, GameArchiveWriter archive)
+			throws InterruptedException {
+
+		IOException failure = null;
+
+		for (ParsedGame game = accepted.take(); game != END_OF_GAMES; game = accepted.take()) {
+
+			if (failure == null) {
+
+				try {
+
+					archive.addGame(game.fen, game.moves, game.moves.length, game.result);
+				} catch (IOException e) {
+
+					failure = e;
+				}
+			}
+		}
+		return failure;
+	}
+
+	// a worker only returns after taking END, so one that is done earlier has failed. its
+	// failure is rethrown instead of waiting forever for room in a queue nobody drains
+	private static void put(BlockingQueue<PgnGame> games, PgnGame game, List<Future<?>> workers)
+			throws InterruptedException, ExecutionException {
+
+		while (!games.offer(game, 100, TimeUnit.MILLISECONDS)) {
+
+			for (Future<?> worker : workers) {
+
+				if (worker.isDone()) {
+
+					worker.get();
+				}
+			}
+		}
+	}
+
+	private static void await(List<Future<?>> futures) throws InterruptedException, ExecutionException {
+
+		for (Future<?> future : futures) {
+
+			future.get();
+		}
+	}
+
+	private static int archiveResult(String result) {
+
+		switch (result) {
+		case "1-0":
+			return GameArchive.RESULT_WHITE_WINS;
+		case "0-1":
+			return GameArchive.RESULT_BLACK_WINS;
+		case "1/2-1/2":
+			return GameArchive.RESULT_DRAW;
+		default:
+			return GameArchive.RESULT_UNKNOWN;
+		}
+	}
+
+	private static class ParsedGame {
+
+		final String fen;
+		final int[] moves;
+		final int result;
+
+		ParsedGame(String fen, int[] moves, int result) {
+
+			this.fen = fen;
+			this.moves = moves;
+			this.result = result;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package chess.pgn;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// splits a PGN stream into games one at a time. comments, variations, NAGs and move
+// numbers are dropped, only the tags, the main line and the result are kept
+public class PgnReader implements Closeable {
+
+	private final BufferedReader in;
+	private final StringBuilder token = new StringBuilder(16);
+	private String pending;
+	private long games;
+
+	// state carried from line to line inside a game
+	private boolean inComment;
+	private int variationDepth;
+
+	public PgnReader(Reader in) {
+
+		this.in = (in instanceof BufferedReader) ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+	}
+
+	// the next game, or null at the end of the stream
+	public PgnGame next() throws IOException {
+
+		String line = nextLine();
+
+		while (line != null && line.trim().isEmpty()) {
+
+			line = nextLine();
+		}
+
+		if (line == null) {
+
+			return null;
+		}
+
+		PgnGame game = new PgnGame(++games);
+		inComment = false;
+		variationDepth = 0;
+
+		while (line != null && line.startsWith("[")) {
+
+			tag(game, line);
+			line = nextLine();
+		}
+
+		boolean movetext = false;
+
+		for (; line != null; line = nextLine()) {
+
+			// the tags of the next game close a game whose result is missing
+			if (movetext && !inComment && line.startsWith("[")) {
+
+				pending = line;
+				break;
+			}
+
+			if (line.startsWith("%")) {
+
+				continue;
+			}
+
+			movetext |= !line.trim().isEmpty();
+
+			if (movetext(game, line)) {
+
+				break;
+			}
+		}
+		return game;
+	}
+
+	private String nextLine() throws IOException {
+
+		if (pending != null) {
+
+			String line = pending;
+			pending = null;
+			return line;
+		}
+		return in.readLine();
+	}
+
+	private static void tag(PgnGame game, String line) {
+
+		int space = line.indexOf(' ');
+		int open = line.indexOf('"');
+		int close = line.lastIndexOf('"');
+
+		if (space > 1 && open > space && close > open) {
+
+			game.getTags().put(line.substring(1, space), line.substring(open + 1, close).replace("\\\"", "\""));
+		}
+	}
+
+	// true once the result token has been read
+	private boolean movetext(PgnGame game, String line) {
+
+		for (int i = 0; i < line.length(); i++) {
+
+			char c = line.charAt(i);
+
+			if (inComment) {
+
+				inComment = c != '}';
+				continue;
+			}
+
+			switch (c) {
+			case '{':
+				if (flush(game)) {
+
+					return true;
+				}
+				inComment = true;
+				break;
+			case ';':
+				return flush(game);
+			case '(':
+				if (flush(game)) {
+
+					return true;
+				}
+				variationDepth++;
+				break;
+			case ')':
+				flush(game);
+				variationDepth = Math.max(0, variationDepth - 1);
+				break;
+			case ' ':
+			case '\t':
+				if (flush(game)) {
+
+					return true;
+				}
+				break;
+			default:
+				token.append(c);
+			}
+		}
+		return flush(game);
+	}
+
+	// hands the token just read to the game, true when it was the result
+	private boolean flush(PgnGame game) {
+
+		if (token.length() == 0) {
+
+			return false;
+		}
+
+		String word = token.toString();
+		token.setLength(0);
+
+		if (variationDepth > 0) {
+
+			return false;
+		}
+
+		if (word.equals("1-0") || word.equals("0-1") || word.equals("1/2-1/2") || word.equals("*")) {
+
+			game.setResult(word);
+			return true;
+		}
+
+		// move numbers may be glued to the move, as in "12.e4" or "12...Nf6"
+		int digits = 0;
+
+		while (digits < word.length() && Character.isDigit(word.charAt(digits))) {
+
+			digits++;
+		}
+
+		if (digits == word.length()) {
+
+			return false;
+		}
+
+		if (word.charAt(digits) == '.') {
+
+			while (digits < word.length() && word.charAt(digits) == '.') {
+
+				digits++;
+			}
+			word = word.substring(digits);
+		}
+
+		if (!word.isEmpty() && word.charAt(0) != '$') {
+
+			game.getMoves().add(word);
+		}
+		return false;
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		in.close();
+	}
+}
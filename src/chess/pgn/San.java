@@ -0,0 +1,243 @@
+package chess.pgn;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+
+// standard algebraic notation, read and written against the moves of a match
+public final class San {
+
+	private San() {
+	}
+
+	// the legal move of the side to move written as san, or Move.NONE when there is no such
+	// move or more than one. the buffer is the caller's, so resolving allocates nothing
+	public static int resolve(ChessMatch chessMatch, CharSequence san, MoveList moves) {
+
+		int end = san.length();
+
+		while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+
+			end--;
+		}
+
+		Color side = chessMatch.getCurrentPlayer();
+		chessMatch.generateMoves(side, moves);
+
+		if (isCastling(san, end, 5)) {
+
+			return legal(chessMatch, moves, side, Move.QUEEN_CASTLE);
+		}
+		if (isCastling(san, end, 3)) {
+
+			return legal(chessMatch, moves, side, Move.KING_CASTLE);
+		}
+
+		PieceType promotion = null;
+
+		if (end >= 2 && san.charAt(end - 2) == '=') {
+
+			promotion = PieceType.fromLetter(san.charAt(end - 1));
+			end -= 2;
+		} else if (end >= 1 && Character.isUpperCase(san.charAt(end - 1))) {
+
+			promotion = PieceType.fromLetter(san.charAt(end - 1));
+			end--;
+		}
+
+		if (end < 2 || !isSquare(san.charAt(end - 2), san.charAt(end - 1))
+				|| (promotion != null && (promotion == PieceType.PAWN || promotion == PieceType.KING))) {
+
+			return Move.NONE;
+		}
+
+		int target = square(san.charAt(end - 2), san.charAt(end - 1));
+		PieceType type = PieceType.PAWN;
+		int i = 0;
+
+		if (Character.isUpperCase(san.charAt(0))) {
+
+			type = PieceType.fromLetter(san.charAt(0));
+
+			if (type == null || type == PieceType.PAWN) {
+
+				return Move.NONE;
+			}
+			i = 1;
+		}
+
+		int fromColumn = -1;
+		int fromRow = -1;
+
+		for (; i < end - 2; i++) {
+
+			char c = san.charAt(i);
+
+			if (c >= 'a' && c <= 'h') {
+
+				fromColumn = c - 'a';
+			} else if (c >= '1' && c <= '8') {
+
+				fromRow = '8' - c;
+			} else if (c != 'x' && c != ':' && c != '-') {
+
+				return Move.NONE;
+			}
+		}
+
+		int found = Move.NONE;
+
+		for (int j = 0; j < moves.size(); j++) {
+
+			int move = moves.get(j);
+			int source = Move.source(move);
+
+			if (Move.target(move) != target || chessMatch.pieceTypeAt(source) != type
+					|| (fromColumn >= 0 && source % 8 != fromColumn) || (fromRow >= 0 && source / 8 != fromRow)
+					|| Move.isPromotion(move) != (promotion != null)
+					|| (promotion != null && Move.promotionType(move) != promotion)) {
+
+				continue;
+			}
+
+			if (isLegal(chessMatch, move, side)) {
+
+				if (found != Move.NONE) {
+
+					return Move.NONE;
+				}
+				found = move;
+			}
+		}
+		return found;
+	}
+
+	// san of a legal move of the side to move, with the check and mate marks
+	public static String toSan(ChessMatch chessMatch, int move) {
+
+		StringBuilder sb = new StringBuilder(8);
+		int source = Move.source(move);
+		int target = Move.target(move);
+		PieceType type = chessMatch.pieceTypeAt(source);
+		Color side = chessMatch.getCurrentPlayer();
+
+		if (Move.flags(move) == Move.KING_CASTLE) {
+
+			sb.append("O-O");
+		} else if (Move.flags(move) == Move.QUEEN_CASTLE) {
+
+			sb.append("O-O-O");
+		} else if (type == PieceType.PAWN) {
+
+			if (Move.isCapture(move)) {
+
+				sb.append((char) ('a' + source % 8)).append('x');
+			}
+			sb.append(Move.squareName(target));
+
+			if (Move.isPromotion(move)) {
+
+				sb.append('=').append(Move.promotionType(move).getLetter());
+			}
+		} else {
+
+			sb.append(type.getLetter());
+			MoveList moves = new MoveList();
+			chessMatch.generateMoves(side, moves);
+			boolean ambiguous = false;
+			boolean sameColumn = false;
+			boolean sameRow = false;
+
+			for (int i = 0; i < moves.size(); i++) {
+
+				int other = moves.get(i);
+				int otherSource = Move.source(other);
+
+				if (otherSource != source && Move.target(other) == target && chessMatch.pieceTypeAt(otherSource) == type
+						&& isLegal(chessMatch, other, side)) {
+
+					ambiguous = true;
+					sameColumn |= otherSource % 8 == source % 8;
+					sameRow |= otherSource / 8 == source / 8;
+				}
+			}
+
+			if (ambiguous && (!sameColumn || sameRow)) {
+
+				sb.append((char) ('a' + source % 8));
+			}
+			if (ambiguous && sameColumn) {
+
+				sb.append((char) ('8' - source / 8));
+			}
+			if (Move.isCapture(move)) {
+
+				sb.append('x');
+			}
+			sb.append(Move.squareName(target));
+		}
+
+		chessMatch.makeMove(move);
+		Color opponent = chessMatch.getCurrentPlayer();
+
+		if (chessMatch.isInCheck(opponent)) {
+
+			sb.append(chessMatch.generateLegalMoves(new MoveList()) == 0 ? '#' : '+');
+		}
+		chessMatch.undoMove();
+		return sb.toString();
+	}
+
+	private static boolean isCastling(CharSequence san, int end, int length) {
+
+		if (end != length) {
+
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+
+			char c = san.charAt(i);
+
+			if ((i % 2 == 0 && c != 'O' && c != '0') || (i % 2 == 1 && c != '-')) {
+
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int legal(ChessMatch chessMatch, MoveList moves, Color side, int flags) {
+
+		for (int i = 0; i < moves.size(); i++) {
+
+			int move = moves.get(i);
+
+			if (Move.flags(move) == flags && isLegal(chessMatch, move, side)) {
+
+				return move;
+			}
+		}
+		return Move.NONE;
+	}
+
+	private static boolean isLegal(ChessMatch chessMatch, int move, Color side) {
+
+		chessMatch.makeMove(move);
+		boolean legal = !chessMatch.isInCheck(side);
+		chessMatch.undoMove();
+		return legal;
+	}
+
+	private static boolean isSquare(char column, char row) {
+
+		return column >= 'a' && column <= 'h' && row >= '1' && row <= '8';
+	}
+
+	private static int square(char column, char row) {
+
+		return ('8' - row) * 8 + column - 'a';
+	}
+}
@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Bishop extends ChessPiece {
 
@@ -12,78 +13,22 @@ public class Bishop extends ChessPiece {
 	}
 
 	@Override
-	public String toString() {
-
-		return "B";
+	public PieceType getType() {
 
+		return PieceType.BISHOP;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		Position p = new Position(0, 0);
-
-		// nw
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() - 1 , p.getColumn() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//ne
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() - 1, p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//se 
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() + 1, p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//sw
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
+	public String toString() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() + 1, p.getColumn() - 1);
+		return "B";
 
-		}
+	}
 
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
+	@Override
+	public long attacks() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		return mat;
+		return Attacks.bishop(getSquare(), getBoard().occupancy());
 	}
 
 }
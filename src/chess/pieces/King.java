@@ -1,11 +1,11 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
-import chess.ChassPosition;
+import chess.Attacks;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class King extends ChessPiece {
 
@@ -17,128 +17,71 @@ public class King extends ChessPiece {
 	}
 
 	@Override
-	public String toString() {
+	public PieceType getType() {
 
-		return "K";
+		return PieceType.KING;
 	}
 
-	private boolean canMove(Position position) {
-
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
-
-		return p == null || p.getColor() != getColor();
-	}
-
-	private boolean testeRookCastling(Position position) {
-		
-		ChessPiece p = (ChessPiece)getBoard().piece(position);
-		
-		return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
-	}
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-		Position p = new Position(0, 0);
-
-		// above
-		p.setValues(position.getRow() - 1, position.getColumn());
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// below
-		p.setValues(position.getRow() + 1, position.getColumn());
-
-		if (getBoard().positionExists(p) && canMove(p)) {
+	public String toString() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+		return "K";
+	}
 
-		// left
-		p.setValues(position.getRow(), position.getColumn() - 1);
+	private boolean testeRookCastling(int row, int column) {
 
-		if (getBoard().positionExists(p) && canMove(p)) {
+		if (!getBoard().positionExists(row, column)) {
 
-			mat[p.getRow()][p.getColumn()] = true;
+			return false;
 		}
 
-		// right
-		p.setValues(position.getRow(), position.getColumn() + 1);
+		ChessPiece p = (ChessPiece) getBoard().piece(row, column);
 
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+		return p != null && p.getType() == PieceType.ROOK && p.getColor() == getColor() && p.getMoveCount() == 0;
+	}
 
-		// nw
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
+	private boolean isEmpty(int row, int column) {
 
-		if (getBoard().positionExists(p) && canMove(p)) {
+		return !getBoard().thereIsAPiece(getBoard().square(row, column));
+	}
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+	private boolean isSafe(int row, int column) {
 
-		// ne
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
+		Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		return !chessMatch.isSquareAttacked(getBoard().square(row, column), opponent);
+	}
 
-		if (getBoard().positionExists(p) && canMove(p)) {
+	@Override
+	public long attacks() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+		return Attacks.king(getSquare());
+	}
 
-		// sw
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
+	@Override
+	public long moveMask() {
 
-		if (getBoard().positionExists(p) && canMove(p)) {
+		long mask = attacks() & ~ownPieces();
+		int row = position.getRow();
+		int column = position.getColumn();
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+		// #specialmove castling, never out of, through or into check
+		if (getMoveCount() == 0 && isSafe(row, column)) {
 
-		// sd
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
+			// #specialmove castling kingside rook
+			if (testeRookCastling(row, column + 3) && isEmpty(row, column + 1) && isEmpty(row, column + 2)
+					&& isSafe(row, column + 1) && isSafe(row, column + 2)) {
 
-		if (getBoard().positionExists(p) && canMove(p)) {
+				mask |= 1L << getBoard().square(row, column + 2);
+			}
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+			// #specialmove castling queenside rook
+			if (testeRookCastling(row, column - 4) && isEmpty(row, column - 1) && isEmpty(row, column - 2)
+					&& isEmpty(row, column - 3) && isSafe(row, column - 1) && isSafe(row, column - 2)) {
 
-		//#specialmove castling
-		if (getMoveCount() == 0 && !chessMatch.getCheck()) {
-			
-			//specialMove castling Kingsid rook
-			Position posiT1 = new Position(position.getRow(), position.getColumn() + 3);
-			
-			if (testeRookCastling(posiT1)) {
-				
-				Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-				
-				if(getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-					
-					mat[position.getRow()][position.getColumn() + 2] = true;
-				}
-			}
-			
-			//specialMove castling queenside rook
-			Position posiT2 = new Position(position.getRow(), position.getColumn() - 4);
-			
-			if (testeRookCastling(posiT2)) {
-				
-				Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-				Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-				
-				if(getBoard().piece(p1) == null && getBoard().piece(p2) == null  && getBoard().piece(p3) == null) {
-					
-					mat[position.getRow()][position.getColumn() - 2] = true;
-				}
+				mask |= 1L << getBoard().square(row, column - 2);
 			}
 		}
-		return mat;
+		return mask;
 	}
 
 }
@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Knight extends ChessPiece {
 
@@ -12,90 +13,21 @@ public class Knight extends ChessPiece {
 	}
 
 	@Override
-	public String toString() {
+	public PieceType getType() {
 
-		return "N";
+		return PieceType.KNIGHT;
 	}
 
-	private boolean canMove(Position position) {
-
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
+	@Override
+	public String toString() {
 
-		return p == null || p.getColor() != getColor();
+		return "N";
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-		Position p = new Position(0, 0);
-
-		// above
-		p.setValues(position.getRow() - 1, position.getColumn() - 2);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// below
-		p.setValues(position.getRow() - 2, position.getColumn() - 1);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// left
-		p.setValues(position.getRow() - 2, position.getColumn() + 1);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// right
-		p.setValues(position.getRow() - 1, position.getColumn() + 2);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// nw
-		p.setValues(position.getRow() + 1, position.getColumn() + 2);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// ne
-		p.setValues(position.getRow() + 2, position.getColumn() + 1);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// sw
-		p.setValues(position.getRow() + 2, position.getColumn() - 1);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// sd
-		p.setValues(position.getRow() + 1, position.getColumn() - 2);
-
-		if (getBoard().positionExists(p) && canMove(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+	public long attacks() {
 
-		return mat;
+		return Attacks.knight(getSquare());
 	}
 
 }
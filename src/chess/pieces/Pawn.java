@@ -1,10 +1,10 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Pawn extends ChessPiece {
 
@@ -16,106 +16,60 @@ public class Pawn extends ChessPiece {
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
+	public long attacks() {
 
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		Position p = new Position(0, 0);
+		int direction = (getColor() == Color.WHITE) ? -1 : 1;
 
-		if (getColor() == Color.WHITE) {
-
-			p.setValues(position.getRow() - 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-
-			p.setValues(position.getRow() - 2, position.getColumn());
-			Position p2 = new Position(position.getRow() - 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-
-			p.setValues(position.getRow() - 1, position.getColumn() - 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-
-			p.setValues(position.getRow() - 1, position.getColumn() + 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-				mat[p.getRow()][p.getColumn()] = true;
-			}
+		return step(direction, -1) | step(direction, 1);
+	}
 
-			// #especialmove en passant white
-			if (position.getRow() == 3) {
+	@Override
+	public long moveMask() {
 
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-						&& getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
+		Board board = getBoard();
+		int direction = (getColor() == Color.WHITE) ? -1 : 1;
+		long occupancy = board.occupancy();
+		long mask = 0L;
 
-					mat[left.getRow() - 1][left.getColumn()] = true;
+		long forward = step(direction, 0);
+		if ((forward & occupancy) == 0) {
 
-				}
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-						&& getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
+			mask |= forward;
 
-					mat[right.getRow() - 1][right.getColumn()] = true;
+			long twoSteps = step(2 * direction, 0);
+			if (getMoveCount() == 0 && (twoSteps & occupancy) == 0) {
 
-				}
+				mask |= twoSteps;
 			}
+		}
 
-		} else {
+		mask |= attacks() & opponentPieces();
 
-			p.setValues(position.getRow() + 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
+		// #especialmove en passant
+		ChessPiece vulnerable = chessMatch.getEnPassantVulnerable();
+		int row = position.getRow();
+		int column = position.getColumn();
 
-				mat[p.getRow()][p.getColumn()] = true;
-			}
+		if (vulnerable != null && vulnerable.getColor() != getColor()
+				&& row == ((getColor() == Color.WHITE) ? 3 : 4)) {
 
-			p.setValues(position.getRow() + 2, position.getColumn());
-			Position p2 = new Position(position.getRow() + 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
+			if (board.positionExists(row, column - 1) && board.piece(row, column - 1) == vulnerable) {
 
-				mat[p.getRow()][p.getColumn()] = true;
+				mask |= 1L << board.square(row + direction, column - 1);
 			}
 
-			p.setValues(position.getRow() + 1, position.getColumn() - 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
+			if (board.positionExists(row, column + 1) && board.piece(row, column + 1) == vulnerable) {
 
-				mat[p.getRow()][p.getColumn()] = true;
+				mask |= 1L << board.square(row + direction, column + 1);
 			}
+		}
+		return mask;
+	}
 
-			p.setValues(position.getRow() + 1, position.getColumn() + 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-
-			// #especialmove en passant BLACK
-			if (position.getRow() == 4) {
-
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-						&& getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-
-					mat[left.getRow() + 1][left.getColumn()] = true;
-
-				}
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-						&& getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-
-					mat[right.getRow() + 1][right.getColumn()] = true;
+	@Override
+	public PieceType getType() {
 
-				}
-			}
-		}
-		return mat;
+		return PieceType.PAWN;
 	}
 
 	@Override
@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Queen extends ChessPiece {
 
@@ -12,138 +13,22 @@ public class Queen extends ChessPiece {
 	}
 
 	@Override
-	public String toString() {
-
-		return "Q";
+	public PieceType getType() {
 
+		return PieceType.QUEEN;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		Position p = new Position(0, 0);
-
-		// above
-		p.setValues(position.getRow() - 1, position.getColumn());
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// to left
-		p.setValues(position.getRow(), position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// rigth
-		p.setValues(position.getRow(), position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// below
-		p.setValues(position.getRow() + 1, position.getColumn());
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// nw
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() - 1, p.getColumn() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// ne
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() - 1, p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// se
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() + 1, p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// sw
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
+	public String toString() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() + 1, p.getColumn() - 1);
+		return "Q";
 
-		}
+	}
 
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
+	@Override
+	public long attacks() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		return mat;
+		return Attacks.queen(getSquare(), getBoard().occupancy());
 	}
 
 }
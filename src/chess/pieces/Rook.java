@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import boradgame.Board;
-import boradgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Rook extends ChessPiece {
 
@@ -12,78 +13,22 @@ public class Rook extends ChessPiece {
 	}
 
 	@Override
-	public String toString() {
-
-		return "R";
+	public PieceType getType() {
 
+		return PieceType.ROOK;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		Position p = new Position(0, 0);
-
-		// above
-		p.setValues(position.getRow() - 1, position.getColumn());
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		// to left
-		p.setValues(position.getRow(), position.getColumn() - 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() - 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//rigth
-		p.setValues(position.getRow(), position.getColumn() + 1);
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() + 1);
-
-		}
-
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//below
-		p.setValues(position.getRow() + 1, position.getColumn());
-
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
+	public String toString() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() + 1);
+		return "R";
 
-		}
+	}
 
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
+	@Override
+	public long attacks() {
 
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		return mat;
+		return Attacks.rook(getSquare(), getBoard().occupancy());
 	}
 
 }
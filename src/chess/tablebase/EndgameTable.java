@@ -0,0 +1,75 @@
+package chess.tablebase;
+
+import chess.Attacks;
+
+// one material signature: two kings, whiteRooks rooks for white and blackRooks for black.
+// a position is indexed as side to move, white king, black king and the rooks, with the
+// board mirrored so the white king stands in the a8-d5 quadrant. each byte holds the
+// packed result for the side to move
+final class EndgameTable {
+
+	final int whiteRooks;
+	final int blackRooks;
+	final int rooks;
+	final byte[] values;
+
+	EndgameTable(int whiteRooks, int blackRooks) {
+
+		this.whiteRooks = whiteRooks;
+		this.blackRooks = blackRooks;
+		this.rooks = whiteRooks + blackRooks;
+		this.values = new byte[(2 * 16 * 64) << (6 * rooks)];
+	}
+
+	int size() {
+
+		return values.length;
+	}
+
+	// rook squares are white first, then black. the squares are not changed
+	int index(int stm, int whiteKing, int blackKing, int[] rookSquares) {
+
+		int mirror = (((whiteKing & 7) >= 4) ? 7 : 0) ^ (((whiteKing >> 3) >= 4) ? 56 : 0);
+		int king = whiteKing ^ mirror;
+		int index = ((stm * 16 + (king >> 3) * 4 + (king & 7)) << 6) | (blackKing ^ mirror);
+
+		for (int i = 0; i < rooks; i++) {
+
+			index = (index << 6) | (rookSquares[i] ^ mirror);
+		}
+		return index;
+	}
+
+	// fills the squares of an index back in, returns the side to move
+	int decode(int index, int[] kings, int[] rookSquares) {
+
+		for (int i = rooks - 1; i >= 0; i--) {
+
+			rookSquares[i] = index & 63;
+			index >>>= 6;
+		}
+
+		kings[1] = index & 63;
+		index >>>= 6;
+		int quadrant = index & 15;
+		kings[0] = (quadrant >> 2) * 8 + (quadrant & 3);
+		return index >>> 4;
+	}
+
+	// squares attacked by one side, given the occupancy
+	long attacks(int color, int[] kings, int[] rookSquares, long occupancy) {
+
+		long attacks = Attacks.king(kings[color]);
+		int first = (color == 0) ? 0 : whiteRooks;
+		int last = (color == 0) ? whiteRooks : rooks;
+
+		for (int i = first; i < last; i++) {
+
+			if (rookSquares[i] >= 0) {
+
+				attacks |= Attacks.rook(rookSquares[i], occupancy);
+			}
+		}
+		return attacks;
+	}
+}
@@ -0,0 +1,664 @@
+package chess.tablebase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongBinaryOperator;
+
+import chess.Attacks;
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceType;
+
+// exact results for the rook endings initialSetup leads to: KRK, KRRK and KRKR, with the
+// colors either way round. a result is one byte, the win/draw/loss of the side to move in
+// the low two bits and the distance to mate in moves in the other six
+public class Tablebase {
+
+	public static final int NOT_FOUND = -1;
+
+	public static final int DRAW = 0;
+	public static final int WIN = 1;
+	public static final int LOSS = 2;
+	public static final int ILLEGAL = 3;
+
+	// the most rooks a covered position has, the size of the scratch array a probe needs
+	public static final int MAX_ROOKS = 2;
+
+	private static final PieceType[] TYPES = PieceType.values();
+	private static final int MAGIC = 0x4348544b;
+	private static final int MAX_DTM = 63;
+
+	// generation values: 0 not resolved yet, ply to mate + 1, or ILLEGAL_POSITION
+	private static final int ILLEGAL_POSITION = 0xFF;
+
+	private final EndgameTable krk = new EndgameTable(1, 0);
+	private final EndgameTable krrk = new EndgameTable(2, 0);
+	private final EndgameTable krkr = new EndgameTable(1, 1);
+
+	private Tablebase() {
+	}
+
+	public static int wdl(int result) {
+
+		return result & 3;
+	}
+
+	// moves to mate for a win, moves until mated for a loss
+	public static int dtm(int result) {
+
+		return result >>> 2;
+	}
+
+	// plies to mate, the way a search counts them
+	public static int plies(int result) {
+
+		return (wdl(result) == WIN) ? 2 * dtm(result) - 1 : 2 * dtm(result);
+	}
+
+	// the result for the side to move, or NOT_FOUND when the material is not covered
+	// or a castling right is still open
+	public int probe(ChessMatch chessMatch) {
+
+		return probe(chessMatch, new int[MAX_ROOKS]);
+	}
+
+	// the same with a scratch array of MAX_ROOKS squares from the caller, so searches
+	// probing at every node allocate nothing
+	public int probe(ChessMatch chessMatch, int[] squares) {
+
+		// two rooks at most, whatever the colors
+		if (chessMatch.getMaterial(Color.WHITE) + chessMatch.getMaterial(Color.BLACK) > 2 * PieceType.ROOK.getValue()
+				|| chessMatch.getCastlingRights() != 0) {
+
+			return NOT_FOUND;
+		}
+
+		for (PieceType type : TYPES) {
+
+			if (type != PieceType.KING && type != PieceType.ROOK
+					&& (chessMatch.bitboard(Color.WHITE, type) | chessMatch.bitboard(Color.BLACK, type)) != 0) {
+
+				return NOT_FOUND;
+			}
+		}
+
+		long whiteRooks = chessMatch.bitboard(Color.WHITE, PieceType.ROOK);
+		long blackRooks = chessMatch.bitboard(Color.BLACK, PieceType.ROOK);
+		int whiteCount = Long.bitCount(whiteRooks);
+		int blackCount = Long.bitCount(blackRooks);
+
+		if (whiteCount + blackCount > MAX_ROOKS) {
+
+			return NOT_FOUND;
+		}
+
+		int n = 0;
+
+		for (long rooks = whiteRooks; rooks != 0; rooks &= rooks - 1) {
+
+			squares[n++] = Long.numberOfTrailingZeros(rooks);
+		}
+		for (long rooks = blackRooks; rooks != 0; rooks &= rooks - 1) {
+
+			squares[n++] = Long.numberOfTrailingZeros(rooks);
+		}
+
+		int stm = (chessMatch.getCurrentPlayer() == Color.WHITE) ? 0 : 1;
+		return value(stm, Long.numberOfTrailingZeros(chessMatch.bitboard(Color.WHITE, PieceType.KING)),
+				Long.numberOfTrailingZeros(chessMatch.bitboard(Color.BLACK, PieceType.KING)), squares, whiteCount,
+				blackCount);
+	}
+
+	// rook squares are white first and then black, and are used as scratch space
+	int value(int stm, int whiteKing, int blackKing, int[] rookSquares, int whiteCount, int blackCount) {
+
+		// the side with more rooks is always white in the tables
+		if (whiteCount < blackCount) {
+
+			if (whiteCount != 0) {
+
+				return NOT_FOUND;
+			}
+
+			int king = whiteKing;
+			whiteKing = blackKing ^ 56;
+			blackKing = king ^ 56;
+			stm ^= 1;
+
+			for (int i = 0; i < blackCount; i++) {
+
+				rookSquares[i] ^= 56;
+			}
+
+			whiteCount = blackCount;
+			blackCount = 0;
+		}
+
+		EndgameTable table;
+
+		if (whiteCount == 0 && blackCount == 0) {
+
+			return DRAW;
+		} else if (whiteCount == 1 && blackCount == 0) {
+
+			table = krk;
+		} else if (whiteCount == 2 && blackCount == 0) {
+
+			table = krrk;
+		} else if (whiteCount == 1 && blackCount == 1) {
+
+			table = krkr;
+		} else {
+
+			return NOT_FOUND;
+		}
+
+		return table.values[table.index(stm, whiteKing, blackKing, rookSquares)] & 0xFF;
+	}
+
+	public static Tablebase generate(int threads) {
+
+		Tablebase tablebase = new Tablebase();
+		AtomicInteger count = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+
+			Thread thread = new Thread(r, "tablebase-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+
+			// captures lead from the four piece tables into KRK, so it comes first
+			tablebase.generate(tablebase.krk, pool, threads);
+			tablebase.generate(tablebase.krrk, pool, threads);
+			tablebase.generate(tablebase.krkr, pool, threads);
+		} finally {
+
+			pool.shutdownNow();
+		}
+		return tablebase;
+	}
+
+	// retrograde analysis one ply at a time. positions resolved at the previous ply mark
+	// their predecessors, and only marked positions, or positions whose captures into a
+	// smaller table pay off at this ply, are looked at again
+	private void generate(EndgameTable table, ExecutorService pool, int threads) {
+
+		byte[] values = table.values;
+		byte[] marks = new byte[values.length];
+		byte[] winTriggers = new byte[values.length];
+		byte[] lossTriggers = new byte[values.length];
+
+		long lastTrigger = parallel(pool, threads, values.length, (worker, from, to) -> {
+
+			long last = 0;
+
+			for (int index = from; index < to; index++) {
+
+				last = Math.max(last, worker.initialize(index, winTriggers, lossTriggers));
+			}
+			return last;
+		}, table, Math::max);
+
+		for (int level = 1; level < ILLEGAL_POSITION - 1; level++) {
+
+			int ply = level;
+
+			parallel(pool, threads, values.length, (worker, from, to) -> {
+
+				for (int index = from; index < to; index++) {
+
+					if ((values[index] & 0xFF) == ply) {
+
+						worker.markPredecessors(index, marks);
+					}
+				}
+				return 0;
+			}, table, Long::sum);
+
+			long resolved = parallel(pool, threads, values.length, (worker, from, to) -> {
+
+				long count = 0;
+
+				for (int index = from; index < to; index++) {
+
+					boolean candidate = marks[index] != 0 || (winTriggers[index] & 0xFF) == ply
+							|| (lossTriggers[index] & 0xFF) == ply;
+					marks[index] = 0;
+
+					if (candidate && values[index] == 0) {
+
+						count += worker.resolve(index, ply);
+					}
+				}
+				return count;
+			}, table, Long::sum);
+
+			if (resolved == 0 && level >= lastTrigger) {
+
+				break;
+			}
+		}
+
+		for (int index = 0; index < values.length; index++) {
+
+			values[index] = (byte) pack(values[index] & 0xFF);
+		}
+	}
+
+	private static int pack(int value) {
+
+		if (value == ILLEGAL_POSITION) {
+
+			return ILLEGAL;
+		}
+		if (value == 0) {
+
+			return DRAW;
+		}
+
+		int ply = value - 1;
+		int moves = (ply + 1) / 2;
+
+		if (moves > MAX_DTM) {
+
+			throw new IllegalStateException("Distance to mate " + moves + " does not fit in a result");
+		}
+		return (((ply & 1) == 1) ? WIN : LOSS) | (moves << 2);
+	}
+
+	// generation value of a packed result
+	private static int unpack(int result) {
+
+		switch (wdl(result)) {
+		case WIN:
+		case LOSS:
+			return plies(result) + 1;
+		default:
+			return 0;
+		}
+	}
+
+	private interface RangeTask {
+
+		long run(Worker worker, int from, int to);
+	}
+
+	// runs the task over slices of the index range and combines what the slices return
+	private long parallel(ExecutorService pool, int threads, int size, RangeTask task, EndgameTable table,
+			LongBinaryOperator combine) {
+
+		int slices = threads * 8;
+		int slice = (size + slices - 1) / slices;
+		List<Future<Long>> futures = new ArrayList<>();
+
+		for (int from = 0; from < size; from += slice) {
+
+			int start = from;
+			int end = Math.min(size, from + slice);
+			futures.add(pool.submit(() -> task.run(new Worker(table), start, end)));
+		}
+
+		long total = 0;
+
+		try {
+
+			for (Future<Long> future : futures) {
+
+				total = combine.applyAsLong(total, future.get());
+			}
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Tablebase generation interrupted");
+		} catch (ExecutionException e) {
+
+			throw new IllegalStateException("Tablebase generation failed", e.getCause());
+		}
+		return total;
+	}
+
+	// scratch space of one generating thread
+	private final class Worker {
+
+		private final EndgameTable table;
+		private final byte[] values;
+		private final int[] kings = new int[2];
+		private final int[] rookSquares = new int[2];
+		private final int[] lowerSquares = new int[2];
+
+		// what the last scan found among the legal moves
+		private int legal;
+		private int minLoss;
+		private int maxWin;
+		private boolean allWin;
+		private int captures;
+		private int captureMinLoss;
+		private int captureMaxWin;
+		private boolean captureAllWin;
+
+		Worker(EndgameTable table) {
+
+			this.table = table;
+			this.values = table.values;
+		}
+
+		// marks illegal positions and mates, and notes at which ply captures into a smaller
+		// table decide the position. returns the last such ply
+		long initialize(int index, byte[] winTriggers, byte[] lossTriggers) {
+
+			int stm = table.decode(index, kings, rookSquares);
+
+			if (!isLegal(stm)) {
+
+				values[index] = (byte) ILLEGAL_POSITION;
+				return 0;
+			}
+
+			scan(index, ILLEGAL_POSITION, true);
+
+			if (legal == 0) {
+
+				// mated at ply 0, a stalemate stays a draw
+				values[index] = (byte) (inCheck(stm) ? 1 : 0);
+				return 0;
+			}
+
+			long last = 0;
+
+			if (captureMinLoss < ILLEGAL_POSITION) {
+
+				winTriggers[index] = (byte) (captureMinLoss + 1);
+				last = captureMinLoss + 1;
+			}
+
+			if (captures > 0 && captureAllWin) {
+
+				lossTriggers[index] = (byte) (captureMaxWin + 1);
+				last = Math.max(last, captureMaxWin + 1);
+			}
+			return last;
+		}
+
+		// the position is resolved at this ply when a move reaches a position lost at
+		// an earlier ply, or when every move reaches a position won at an earlier ply
+		int resolve(int index, int ply) {
+
+			table.decode(index, kings, rookSquares);
+			scan(index, ply - 1, false);
+
+			if (minLoss <= ply - 1) {
+
+				values[index] = (byte) (minLoss + 2);
+				return 1;
+			}
+
+			if (legal > 0 && allWin) {
+
+				values[index] = (byte) (maxWin + 2);
+				return 1;
+			}
+			return 0;
+		}
+
+		// positions one move earlier, with the other side to move and one of its pieces back
+		// on a square it could have come from. captures came from a bigger table
+		void markPredecessors(int index, byte[] marks) {
+
+			int stm = table.decode(index, kings, rookSquares);
+			int mover = 1 - stm;
+			long occupancy = occupancy();
+			int king = kings[mover];
+
+			for (long from = Attacks.king(king) & ~occupancy; from != 0; from &= from - 1) {
+
+				kings[mover] = Long.numberOfTrailingZeros(from);
+				marks[table.index(mover, kings[0], kings[1], rookSquares)] = 1;
+			}
+			kings[mover] = king;
+
+			int first = (mover == 0) ? 0 : table.whiteRooks;
+			int last = (mover == 0) ? table.whiteRooks : table.rooks;
+
+			for (int i = first; i < last; i++) {
+
+				int rook = rookSquares[i];
+
+				for (long from = Attacks.rook(rook, occupancy) & ~occupancy; from != 0; from &= from - 1) {
+
+					rookSquares[i] = Long.numberOfTrailingZeros(from);
+					marks[table.index(mover, kings[0], kings[1], rookSquares)] = 1;
+				}
+				rookSquares[i] = rook;
+			}
+		}
+
+		private boolean isLegal(int stm) {
+
+			long occupancy = 0;
+			int pieces = 2 + table.rooks;
+
+			occupancy |= 1L << kings[0];
+			occupancy |= 1L << kings[1];
+
+			for (int i = 0; i < table.rooks; i++) {
+
+				occupancy |= 1L << rookSquares[i];
+			}
+
+			if (Long.bitCount(occupancy) != pieces || (Attacks.king(kings[0]) & (1L << kings[1])) != 0) {
+
+				return false;
+			}
+
+			// the side that just moved cannot be left in check
+			return !inCheck(1 - stm);
+		}
+
+		private boolean inCheck(int color) {
+
+			return (table.attacks(1 - color, kings, rookSquares, occupancy()) & (1L << kings[color])) != 0;
+		}
+
+		private long occupancy() {
+
+			long occupancy = (1L << kings[0]) | (1L << kings[1]);
+
+			for (int i = 0; i < table.rooks; i++) {
+
+				if (rookSquares[i] >= 0) {
+
+					occupancy |= 1L << rookSquares[i];
+				}
+			}
+			return occupancy;
+		}
+
+		// goes through the legal moves of the side to move and sums up what they lead to,
+		// counting only results reached at most limit plies from the end
+		private void scan(int index, int limit, boolean initializing) {
+
+			int stm = table.decode(index, kings, rookSquares);
+			int enemy = 1 - stm;
+			long occupancy = occupancy();
+			long own = 1L << kings[stm];
+			int first = (stm == 0) ? 0 : table.whiteRooks;
+			int last = (stm == 0) ? table.whiteRooks : table.rooks;
+
+			for (int i = first; i < last; i++) {
+
+				own |= 1L << rookSquares[i];
+			}
+
+			legal = 0;
+			minLoss = ILLEGAL_POSITION;
+			maxWin = -1;
+			allWin = true;
+			captures = 0;
+			captureMinLoss = ILLEGAL_POSITION;
+			captureMaxWin = -1;
+			captureAllWin = true;
+
+			int king = kings[stm];
+			long enemyKing = 1L << kings[enemy];
+
+			for (long targets = Attacks.king(king) & ~own & ~enemyKing; targets != 0; targets &= targets - 1) {
+
+				int target = Long.numberOfTrailingZeros(targets);
+				kings[stm] = target;
+				move(stm, target, (occupancy & ~(1L << king)) | (1L << target), limit, initializing);
+				kings[stm] = king;
+			}
+
+			for (int i = first; i < last; i++) {
+
+				int rook = rookSquares[i];
+
+				for (long targets = Attacks.rook(rook, occupancy) & ~own & ~enemyKing; targets != 0; targets &= targets - 1) {
+
+					int target = Long.numberOfTrailingZeros(targets);
+					rookSquares[i] = target;
+					move(stm, target, (occupancy & ~(1L << rook)) | (1L << target), limit, initializing);
+					rookSquares[i] = rook;
+				}
+			}
+		}
+
+		// one move, already made on the squares, with the enemy rook on the target taken off
+		private void move(int stm, int target, long occupancy, int limit, boolean initializing) {
+
+			int enemy = 1 - stm;
+			int captured = -1;
+			int first = (enemy == 0) ? 0 : table.whiteRooks;
+			int last = (enemy == 0) ? table.whiteRooks : table.rooks;
+
+			for (int i = first; i < last; i++) {
+
+				if (rookSquares[i] == target) {
+
+					captured = i;
+					rookSquares[i] = -1;
+				}
+			}
+
+			if ((table.attacks(enemy, kings, rookSquares, occupancy) & (1L << kings[stm])) == 0) {
+
+				legal++;
+				int value;
+
+				if (captured >= 0) {
+
+					captures++;
+					value = lowerValue(enemy);
+				} else {
+
+					value = initializing ? 0 : values[table.index(enemy, kings[0], kings[1], rookSquares)] & 0xFF;
+				}
+
+				int ply = (value != 0 && value - 1 <= limit) ? value - 1 : -1;
+
+				if (ply >= 0 && (ply & 1) == 1) {
+
+					// the opponent wins from there
+					maxWin = Math.max(maxWin, ply);
+
+					if (captured >= 0) {
+
+						captureMaxWin = Math.max(captureMaxWin, ply);
+					}
+				} else {
+
+					allWin = false;
+
+					if (captured >= 0) {
+
+						captureAllWin = false;
+					}
+
+					if (ply >= 0) {
+
+						// the opponent is lost there
+						minLoss = Math.min(minLoss, ply);
+
+						if (captured >= 0) {
+
+							captureMinLoss = Math.min(captureMinLoss, ply);
+						}
+					}
+				}
+			}
+
+			if (captured >= 0) {
+
+				rookSquares[captured] = target;
+			}
+		}
+
+		// generation value of the position after a capture, looked up in the smaller table
+		private int lowerValue(int stm) {
+
+			int whiteCount = 0;
+			int blackCount = 0;
+
+			for (int i = 0; i < table.whiteRooks; i++) {
+
+				if (rookSquares[i] >= 0) {
+
+					lowerSquares[whiteCount++] = rookSquares[i];
+				}
+			}
+			for (int i = table.whiteRooks; i < table.rooks; i++) {
+
+				if (rookSquares[i] >= 0) {
+
+					lowerSquares[whiteCount + blackCount++] = rookSquares[i];
+				}
+			}
+
+			int result = value(stm, kings[0], kings[1], lowerSquares, whiteCount, blackCount);
+			return (result == NOT_FOUND) ? 0 : unpack(result);
+		}
+	}
+
+	public void write(Path path) throws IOException {
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+
+			out.writeInt(MAGIC);
+			out.write(krk.values);
+			out.write(krrk.values);
+			out.write(krkr.values);
+		}
+	}
+
+	public static Tablebase read(Path path) throws IOException {
+
+		Tablebase tablebase = new Tablebase();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+
+			if (in.readInt() != MAGIC) {
+
+				throw new IOException("Not a tablebase");
+			}
+
+			in.readFully(tablebase.krk.values);
+			in.readFully(tablebase.krrk.values);
+			in.readFully(tablebase.krkr.values);
+		}
+		return tablebase;
+	}
+}
@@ -0,0 +1,89 @@
+package application.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import chess.ChessException;
+import chess.GameResult;
+
+public class MatchServerTest {
+
+	private final MatchServer server = new MatchServer();
+
+	@After
+	public void close() {
+
+		server.close();
+	}
+
+	// the black pawns keep enough material on the board for the game to go on
+	@Test
+	public void knightPromotionThatIsNotMateKeepsTheGameGoing() {
+
+		long id = server.createMatch("k7/4P3/1K6/8/8/8/7p/8 w - - 0 1");
+		MoveResult result = server.move(id, "e7e8n").join();
+
+		assertEquals(GameResult.IN_PROGRESS, result.getResult());
+		assertFalse(result.getCheck());
+		assertEquals("k3N3/8/1K6/8/8/8/7p/8 b - - 0 1", result.getFen());
+		assertTrue(server.legalMoves(id).join().contains("a8b8"));
+		assertEquals(GameResult.IN_PROGRESS, server.move(id, "a8b8").join().getResult());
+	}
+
+	@Test
+	public void knightPromotionGivesCheckInsteadOfStalemate() {
+
+		long id = server.createMatch("8/5P1k/8/6K1/8/8/p7/8 w - - 0 1");
+		MoveResult result = server.move(id, "f7f8n").join();
+
+		assertEquals(GameResult.IN_PROGRESS, result.getResult());
+		assertTrue(result.getCheck());
+		assertEquals("5N2/7k/8/6K1/8/8/p7/8 b - - 0 1", result.getFen());
+	}
+
+	@Test
+	public void pieceLetterOnANormalMoveIsRejected() {
+
+		long id = server.createMatch("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+
+		try {
+
+			server.move(id, "e2e4q").join();
+			fail("the move was accepted");
+		} catch (CompletionException e) {
+
+			assertTrue(e.getCause() instanceof ChessException);
+		}
+		assertEquals("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1", server.fen(id).join());
+	}
+
+	@Test
+	public void mailboxDrainsAgainAfterACommandThrowsAnError() throws Exception {
+
+		long id = server.createMatch("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+		CompletableFuture<Object> failed = server.submit(id, chessMatch -> {
+
+			throw new AssertionError("command failed");
+		});
+
+		try {
+
+			failed.get(5, TimeUnit.SECONDS);
+			fail("the command succeeded");
+		} catch (ExecutionException e) {
+
+			assertTrue(e.getCause() instanceof AssertionError);
+		}
+		assertEquals("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1", server.fen(id).get(5, TimeUnit.SECONDS));
+	}
+}
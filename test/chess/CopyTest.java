@@ -0,0 +1,47 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CopyTest {
+
+	@Test
+	public void copySeesRepetitionsFromTheGame() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		FenTest.play(chessMatch, "g1f3", "g8f6", "f3g1", "f6g8");
+		ChessMatch copy = chessMatch.copy();
+
+		assertEquals(chessMatch.getHash(), copy.getHash());
+		copy.makeMove(legalMove(copy, "g1f3"));
+		assertTrue(copy.isRepetition());
+	}
+
+	@Test
+	public void copyPlaysOnLikeTheOriginal() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		FenTest.play(chessMatch, "e2e4", "e7e5", "g1f3");
+		ChessMatch copy = chessMatch.copy();
+
+		assertEquals(chessMatch.toFen(), copy.toFen());
+		assertEquals(new Perft(chessMatch).perft(3), new Perft(copy).perft(3));
+	}
+
+	static int legalMove(ChessMatch chessMatch, String name) {
+
+		MoveList moves = new MoveList();
+		chessMatch.generateLegalMoves(moves);
+
+		for (int i = 0; i < moves.size(); i++) {
+
+			if (Move.toString(moves.get(i)).equals(name)) {
+
+				return moves.get(i);
+			}
+		}
+		throw new AssertionError(name + " is not legal");
+	}
+}
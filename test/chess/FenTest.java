@@ -0,0 +1,121 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class FenTest {
+
+	private static final String[] POSITIONS = {
+			ChessMatch.STANDARD_FEN,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+			"r3k2r/8/8/8/8/8/8/R3K2R b Kq - 12 40",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"4k3/8/8/8/8/8/8/4K2R w K - 99 120" };
+
+	@Test
+	public void positionsRoundTrip() {
+
+		ChessMatch chessMatch = new ChessMatch();
+
+		for (String fen : POSITIONS) {
+
+			chessMatch.loadFen(fen);
+			assertEquals(fen, chessMatch.toFen());
+			assertEquals(fen, chessMatch.getSnapshot().toFen());
+			assertEquals(ChessMatch.fromFen(fen).getHash(), chessMatch.getHash());
+		}
+	}
+
+	@Test
+	public void movesKeepTheFenUpToDate() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		play(chessMatch, "e2e4");
+		assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", chessMatch.toFen());
+
+		play(chessMatch, "g8f6", "e1e2");
+		assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", chessMatch.toFen());
+		assertEquals(chessMatch.getHash(), ChessMatch.fromFen(chessMatch.toFen()).getHash());
+	}
+
+	@Test
+	public void invalidPositionsAreRejected() {
+
+		String[] invalid = {
+				"8/8/8 w - -",
+				"4k3/8/8/8/8/8/4R3/4K3 w - - 0 1",
+				"P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+				"4k3/8/8/8/8/8/8/p3K3 w - - 0 1",
+				"4k3/8/8/8/8/8/8/4K3 x - - 0 1" };
+
+		for (String fen : invalid) {
+
+			try {
+
+				ChessMatch.fromFen(fen);
+				fail(fen + " was accepted");
+			} catch (ChessException e) {
+
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void matedSideStaysToMove() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("k7/4P3/1K6/8/8/8/8/8 w - - 0 1");
+		chessMatch.performChessMove(new ChassPosition('e', 7), new ChassPosition('e', 8));
+
+		assertTrue(chessMatch.getCheckMate());
+		assertEquals(Color.BLACK, chessMatch.getCurrentPlayer());
+		assertEquals(Color.WHITE, chessMatch.getWinner());
+		assertEquals("k3Q3/8/1K6/8/8/8/8/8 b - - 0 1", chessMatch.toFen());
+	}
+
+	@Test
+	public void finishedGameRoundTrips() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		play(chessMatch, "f2f3", "e7e5", "g2g4", "d8h4");
+		String fen = chessMatch.toFen();
+
+		ChessMatch loaded = ChessMatch.fromFen(fen);
+		assertEquals(fen, loaded.toFen());
+		assertEquals(GameResult.CHECKMATE, loaded.getResult());
+		assertEquals(Color.WHITE, loaded.getCurrentPlayer());
+	}
+
+	@Test
+	public void loadedMateIsCheckMate() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("k3Q3/8/1K6/8/8/8/8/8 b - - 0 1");
+
+		assertTrue(chessMatch.getCheckMate());
+		assertEquals(GameResult.CHECKMATE, chessMatch.getResult());
+		assertEquals(Color.WHITE, chessMatch.getWinner());
+	}
+
+	@Test
+	public void loadedStalemateIsNotCheckMate() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1");
+
+		assertFalse(chessMatch.getCheckMate());
+		assertEquals(GameResult.STALEMATE, chessMatch.getResult());
+	}
+
+	static void play(ChessMatch chessMatch, String... moves) {
+
+		for (String move : moves) {
+
+			chessMatch.performChessMove(new ChassPosition(move.charAt(0), move.charAt(1) - '0'),
+					new ChassPosition(move.charAt(2), move.charAt(3) - '0'));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// node counts from the usual perft suite, they cover castling, en passant, promotions and pins
+public class PerftTest {
+
+	private static long perft(String fen, int depth) {
+
+		return new Perft(ChessMatch.fromFen(fen)).perft(depth);
+	}
+
+	@Test
+	public void standardPosition() {
+
+		Perft perft = new Perft(Perft.standardPosition());
+
+		assertEquals(20, perft.perft(1));
+		assertEquals(400, perft.perft(2));
+		assertEquals(8902, perft.perft(3));
+		assertEquals(197281, perft.perft(4));
+		assertEquals(4865609, perft.perft(5));
+	}
+
+	@Test
+	public void kiwipete() {
+
+		String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+		assertEquals(48, perft(fen, 1));
+		assertEquals(2039, perft(fen, 2));
+		assertEquals(97862, perft(fen, 3));
+		assertEquals(4085603, perft(fen, 4));
+	}
+
+	@Test
+	public void rookEndingWithEnPassant() {
+
+		assertEquals(674624, perft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5));
+	}
+
+	@Test
+	public void promotionsAndCastlingRights() {
+
+		assertEquals(422333, perft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4));
+		assertEquals(62379, perft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 3));
+	}
+
+	@Test
+	public void undoRestoresThePosition() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+		String fen = chessMatch.toFen();
+		long hash = chessMatch.getHash();
+		new Perft(chessMatch).perft(3);
+
+		assertEquals(fen, chessMatch.toFen());
+		assertEquals(hash, chessMatch.getHash());
+	}
+}
@@ -0,0 +1,35 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PositionSnapshotTest {
+
+	@Test
+	public void snapshotAfterMateHasTheMatedSideToMove() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		FenTest.play(chessMatch, "f2f3", "e7e5", "g2g4", "d8h4");
+		PositionSnapshot snapshot = chessMatch.getSnapshot();
+
+		assertTrue(snapshot.getCheckMate());
+		assertTrue(snapshot.getCheck());
+		assertEquals(Color.WHITE, snapshot.getCurrentPlayer());
+		assertEquals(Color.BLACK, snapshot.getWinner());
+		assertEquals(chessMatch.toFen(), snapshot.toFen());
+		assertEquals(GameResult.CHECKMATE, ChessMatch.fromFen(snapshot.toFen()).getResult());
+	}
+
+	@Test
+	public void noWinnerWhileTheGameGoesOn() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		FenTest.play(chessMatch, "e2e4");
+
+		assertNull(chessMatch.getSnapshot().getWinner());
+		assertEquals(Color.BLACK, chessMatch.getSnapshot().getCurrentPlayer());
+	}
+}
@@ -0,0 +1,46 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// under-promotions played the way the search and the book play them
+public class PromotionTest {
+
+	@Test
+	public void knightPromotionThatIsNotMate() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("k7/4P3/1K6/8/8/8/7p/8 w - - 0 1");
+		chessMatch.performChessMove(Move.promotion(12, 4, PieceType.KNIGHT, false));
+
+		assertFalse(chessMatch.getCheckMate());
+		assertFalse(chessMatch.getCheck());
+		assertEquals(GameResult.IN_PROGRESS, chessMatch.getResult());
+		assertEquals(Color.BLACK, chessMatch.getCurrentPlayer());
+		assertEquals("k3N3/8/1K6/8/8/8/7p/8 b - - 0 1", chessMatch.toFen());
+	}
+
+	@Test
+	public void knightPromotionThatGivesCheck() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("8/5P1k/8/6K1/8/8/p7/8 w - - 0 1");
+		chessMatch.performChessMove(Move.promotion(13, 5, PieceType.KNIGHT, false));
+
+		assertTrue(chessMatch.getCheck());
+		assertEquals(GameResult.IN_PROGRESS, chessMatch.getResult());
+		assertEquals("5N2/7k/8/6K1/8/8/p7/8 b - - 0 1", chessMatch.toFen());
+	}
+
+	@Test
+	public void promotionIsRecordedWithThePieceChosen() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("k7/4P3/1K6/8/8/8/7p/8 w - - 0 1");
+		int move = Move.promotion(12, 4, PieceType.ROOK, false);
+		chessMatch.performChessMove(move);
+
+		assertEquals(move, chessMatch.getMoves()[0]);
+		assertEquals(PieceType.ROOK, chessMatch.pieceTypeAt(4));
+	}
+}
@@ -0,0 +1,106 @@
+package chess.archive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import chess.ChassPosition;
+import chess.ChessMatch;
+import chess.GameResult;
+import chess.MoveList;
+import chess.Perft;
+
+public class GameArchiveTest {
+
+	@Test
+	public void replayEndsWithTheResultOfTheGame() throws IOException {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+		String fen = chessMatch.toFen();
+
+		for (String move : new String[] { "f2f3", "e7e5", "g2g4", "d8h4" }) {
+
+			chessMatch.performChessMove(new ChassPosition(move.charAt(0), move.charAt(1) - '0'),
+					new ChassPosition(move.charAt(2), move.charAt(3) - '0'));
+		}
+
+		Path path = Files.createTempFile("games", ".arc");
+
+		try {
+
+			try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+
+				writer.addGame(fen, chessMatch, GameArchive.RESULT_BLACK_WINS);
+			}
+
+			try (GameArchive archive = GameArchive.open(path)) {
+
+				ChessMatch replayed = archive.replay(0, archive.moveCount(0));
+
+				assertEquals(GameResult.CHECKMATE, replayed.getResult());
+				assertTrue(replayed.getCheckMate());
+				assertTrue(replayed.getCheck());
+				assertEquals(chessMatch.toFen(), replayed.getSnapshot().toFen());
+			}
+		} finally {
+
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void gamesReadBackAsWritten() throws IOException {
+
+		String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+		Random random = new Random(1);
+		MoveList moves = new MoveList();
+		long[] hashes = new long[20];
+		int[][] played = new int[hashes.length][];
+		Path path = Files.createTempFile("games", ".arc");
+
+		try {
+
+			try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+
+				for (int game = 0; game < hashes.length; game++) {
+
+					String fen = (game % 2 == 0) ? ChessMatch.STANDARD_FEN : kiwipete;
+					ChessMatch chessMatch = ChessMatch.fromFen(fen);
+
+					for (int ply = 0; ply < 60 && chessMatch.generateLegalMoves(moves) > 0; ply++) {
+
+						chessMatch.makeMove(moves.get(random.nextInt(moves.size())));
+					}
+					hashes[game] = chessMatch.getHash();
+					played[game] = chessMatch.getMoves();
+					writer.addGame(fen, chessMatch, GameArchive.RESULT_UNKNOWN);
+				}
+			}
+
+			try (GameArchive archive = GameArchive.open(path)) {
+
+				assertEquals(hashes.length, archive.size());
+				ChessMatch chessMatch = new ChessMatch();
+
+				for (int game = 0; game < hashes.length; game++) {
+
+					assertEquals(played[game].length, archive.moveCount(game));
+					assertEquals(played[game][0], archive.move(game, 0));
+					archive.replay(game, archive.moveCount(game), chessMatch);
+					assertEquals(hashes[game], chessMatch.getHash());
+					assertArrayEquals(played[game], chessMatch.getMoves());
+				}
+			}
+		} finally {
+
+			Files.delete(path);
+		}
+	}
+}
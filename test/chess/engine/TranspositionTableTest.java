@@ -0,0 +1,109 @@
+package chess.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+	// keys whose halves are equal all fall into the first bucket
+	private static long firstBucket(int n) {
+
+		return ((long) n << 32) | n;
+	}
+
+	@Test
+	public void storedEntryIsFound() {
+
+		TranspositionTable table = new TranspositionTable(1);
+		table.store(12345L, 777, -300, 9, TranspositionTable.LOWER_BOUND);
+		long data = table.probe(12345L);
+
+		assertEquals(777, TranspositionTable.move(data));
+		assertEquals(-300, TranspositionTable.score(data));
+		assertEquals(9, TranspositionTable.depth(data));
+		assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(data));
+		assertEquals(0, table.probe(999L));
+	}
+
+	@Test
+	public void singleEntryPoliciesUseTheWholeTable() {
+
+		for (ReplacementPolicy policy : new ReplacementPolicy[] { ReplacementPolicy.ALWAYS_REPLACE, ReplacementPolicy.DEPTH_PREFERRED }) {
+
+			TranspositionTable table = new TranspositionTable(1, policy);
+			int entries = (int) (table.sizeInBytes() / 16);
+
+			for (int key = 1; key < entries; key++) {
+
+				table.store(key, key & 0xFFFF, 0, 1, TranspositionTable.EXACT);
+			}
+
+			for (int key = 1; key < entries; key++) {
+
+				assertEquals(policy + " key " + key, key & 0xFFFF, TranspositionTable.move(table.probe(key)));
+			}
+		}
+	}
+
+	@Test
+	public void positionIsNeverStoredTwiceInABucket() {
+
+		TranspositionTable table = new TranspositionTable(1);
+		table.newSearch();
+		table.store(firstBucket(1), 1, 0, 10, TranspositionTable.EXACT);
+		table.store(firstBucket(2), 2, 0, 2, TranspositionTable.EXACT);
+
+		// deeper than the first slot: it moves up and leaves the second slot empty
+		table.store(firstBucket(2), 3, 0, 12, TranspositionTable.EXACT);
+		assertEquals(3, TranspositionTable.move(table.probe(firstBucket(2))));
+		assertEquals(1, table.hashfull());
+
+		// a shallower entry of the position in the first slot stays where it is
+		table.store(firstBucket(2), 4, 0, 5, TranspositionTable.EXACT);
+		assertEquals(4, TranspositionTable.move(table.probe(firstBucket(2))));
+		assertEquals(1, table.hashfull());
+	}
+
+	// a torn entry written by two threads at once must fail the key check, never return
+	// the data of another position
+	@Test
+	public void concurrentStoresNeverMixEntries() throws InterruptedException {
+
+		TranspositionTable table = new TranspositionTable(1);
+		AtomicInteger mixed = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+
+		for (int t = 0; t < threads.length; t++) {
+
+			long seed = t;
+			threads[t] = new Thread(() -> {
+
+				Random random = new Random(seed);
+
+				for (int i = 0; i < 200000; i++) {
+
+					long key = random.nextInt(5000) * 0x9E3779B97F4A7C15L;
+					int move = (int) (key & 0xFFFF);
+					table.store(key, move, 5, 3, TranspositionTable.EXACT);
+					long data = table.probe(key);
+
+					if (data != 0 && TranspositionTable.move(data) != move) {
+
+						mixed.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads) {
+
+			thread.join();
+		}
+		assertEquals(0, mixed.get());
+	}
+}
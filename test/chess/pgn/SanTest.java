@@ -0,0 +1,93 @@
+package chess.pgn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.Perft;
+
+public class SanTest {
+
+	private final MoveList buffer = new MoveList();
+
+	private String resolve(ChessMatch chessMatch, String san) {
+
+		int move = San.resolve(chessMatch, san, buffer);
+		return (move == Move.NONE) ? null : Move.toString(move);
+	}
+
+	@Test
+	public void resolvesPiecesPawnsAndCastling() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+
+		assertEquals("e1g1", resolve(chessMatch, "O-O"));
+		assertEquals("e1c1", resolve(chessMatch, "O-O-O"));
+		assertEquals("d5e6", resolve(chessMatch, "dxe6"));
+		assertEquals("f3f6", resolve(chessMatch, "Qxf6+"));
+		assertEquals("g2h3", resolve(chessMatch, "gxh3"));
+		assertEquals("e5f7", resolve(chessMatch, "Nxf7!?"));
+		assertNull(resolve(chessMatch, "Nb5d4"));
+		assertNull(resolve(chessMatch, "Qz9"));
+	}
+
+	@Test
+	public void ambiguousMovesNeedTheirDisambiguation() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+
+		assertNull(resolve(chessMatch, "Rd1"));
+		assertEquals("a1d1", resolve(chessMatch, "Rad1"));
+		assertEquals("h1d1", resolve(chessMatch, "Rhd1"));
+	}
+
+	@Test
+	public void promotionsKeepThePieceChosen() {
+
+		ChessMatch chessMatch = ChessMatch.fromFen("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+
+		assertEquals("a7a8n", resolve(chessMatch, "a8=N"));
+		assertEquals("a7b8q", resolve(chessMatch, "axb8=Q+"));
+	}
+
+	@Test
+	public void toSanAddsTheMateMark() {
+
+		ChessMatch chessMatch = Perft.standardPosition();
+
+		for (String san : new String[] { "f3", "e5", "g4" }) {
+
+			chessMatch.makeMove(San.resolve(chessMatch, san, buffer));
+		}
+		assertEquals("Qh4#", San.toSan(chessMatch, San.resolve(chessMatch, "Qh4", buffer)));
+	}
+
+	@Test
+	public void readerSkipsCommentsVariationsAndNumbers() throws IOException {
+
+		String pgn = "[Event \"Test\"]\n[Result \"1-0\"]\n\n1. e4 {best by test} e5 (1... c5 2. Nf3) 2. Nf3 $1 Nc6 1-0\n\n"
+				+ "[Event \"Second\"]\n[FEN \"4k3/8/8/8/8/8/8/4K2R w K - 0 1\"]\n\n1. O-O *\n";
+
+		try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+
+			PgnGame game = reader.next();
+			assertEquals("Test", game.getTags().get("Event"));
+			assertEquals(Arrays.asList("e4", "e5", "Nf3", "Nc6"), game.getMoves());
+			assertEquals("1-0", game.getResult());
+			assertEquals(ChessMatch.STANDARD_FEN, game.getStartFen());
+
+			game = reader.next();
+			assertEquals(Arrays.asList("O-O"), game.getMoves());
+			assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", game.getStartFen());
+			assertNull(reader.next());
+		}
+	}
+}